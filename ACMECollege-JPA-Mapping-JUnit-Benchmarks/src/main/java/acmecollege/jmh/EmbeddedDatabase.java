@@ -0,0 +1,26 @@
+package acmecollege.jmh;
+
+import java.util.Map;
+
+/**
+ * Properties that point acmecollege-PU to an in-memory H2 DB (MySQL compatibility mode), the schema is generated from
+ * the entity mappings.  The second-level cache is turned off so the benchmarks measure the path to the DB.
+ */
+final class EmbeddedDatabase {
+
+	static final Map<String, Object> PROPERTIES = Map.ofEntries(
+		Map.entry("javax.persistence.jdbc.url",
+			"jdbc:h2:mem:acmecollege;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE"),
+		Map.entry("javax.persistence.jdbc.driver", "org.h2.Driver"),
+		Map.entry("javax.persistence.jdbc.user", "sa"),
+		Map.entry("javax.persistence.jdbc.password", ""),
+		Map.entry("hibernate.dialect", "org.hibernate.dialect.H2Dialect"),
+		Map.entry("javax.persistence.schema-generation.create-source", "metadata"),
+		Map.entry("javax.persistence.schema-generation.drop-source", "metadata"),
+		Map.entry("hibernate.cache.use_second_level_cache", "false"),
+		Map.entry("hibernate.format_sql", "false"),
+		Map.entry("hibernate.use_sql_comments", "false"));
+
+	private EmbeddedDatabase() {
+	}
+}
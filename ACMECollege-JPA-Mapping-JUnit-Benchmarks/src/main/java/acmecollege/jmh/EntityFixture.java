@@ -0,0 +1,197 @@
+package acmecollege.jmh;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+
+import acmecollege.entity.AcademicStudentClub;
+import acmecollege.entity.ClubMembership;
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.DurationAndStatus;
+import acmecollege.entity.MembershipCard;
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import acmecollege.entity.StudentClub;
+
+/**
+ * How to create, identify and change an instance of every entity, used as the JMH parameter of
+ * {@link EntityPersistenceBenchmark}.
+ * <p>
+ * {@link #create(EntityManager, int)} also persists the parents an entity cannot exist without.  Most relationships
+ * cascade ALL (including REMOVE), so parents are never shared between instances:  removing one instance must not
+ * take the parents of another one with it.  For the dependent entities the persist and remove benchmarks therefore
+ * include the parent rows, as they would in the application.
+ */
+public enum EntityFixture {
+
+	STUDENT(Student.class) {
+		@Override
+		Object newInstance(int n) {
+			Student student = new Student();
+			student.setFullName("First" + n, "Last" + n);
+			return student;
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			((Student) entity).setLastName("Changed" + n);
+		}
+	},
+
+	PROFESSOR(Professor.class) {
+		@Override
+		Object newInstance(int n) {
+			Professor professor = new Professor();
+			professor.setProfessor("First" + n, "Last" + n, "Information and Communications Technology");
+			return professor;
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			((Professor) entity).setSpecialization("Specialization " + n);
+		}
+	},
+
+	COURSE(Course.class) {
+		@Override
+		Object newInstance(int n) {
+			// course_code is VARCHAR(7)
+			return new Course(String.format("C%06d", n % 1_000_000), "Course " + n, 2022, "AUTUMN", 3, (byte) 0);
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			((Course) entity).setCourseTitle("Changed " + n);
+		}
+	},
+
+	STUDENT_CLUB(StudentClub.class) {
+		@Override
+		Object newInstance(int n) {
+			StudentClub club = new AcademicStudentClub();
+			club.setName("Club " + n);
+			return club;
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			// name is unique, n is unique within a run
+			((StudentClub) entity).setName("Changed club " + n);
+		}
+	},
+
+	CLUB_MEMBERSHIP(ClubMembership.class) {
+		@Override
+		Object newInstance(int n) {
+			DurationAndStatus ds = new DurationAndStatus();
+			ds.setDurationAndStatus(LocalDateTime.of(2022, 8, 28, 0, 0), LocalDateTime.of(2023, 8, 27, 0, 0), "+");
+			ClubMembership membership = new ClubMembership();
+			membership.setDurationAndStatus(ds);
+			// Cascades to the club
+			membership.setStudentClub((StudentClub) STUDENT_CLUB.newInstance(n));
+			return membership;
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			LocalDateTime endDate = LocalDateTime.of(2024, 8, 27, 0, 0).plusDays(n % 365);
+			((ClubMembership) entity).getDurationAndStatus().setEndDate(endDate);
+		}
+	},
+
+	MEMBERSHIP_CARD(MembershipCard.class) {
+		@Override
+		Object newInstance(int n) {
+			MembershipCard card = new MembershipCard();
+			card.setSigned(true);
+			// Cascades to the membership and its club, the owner is persisted by create
+			card.setClubMembership((ClubMembership) CLUB_MEMBERSHIP.newInstance(n));
+			card.setOwner((Student) STUDENT.newInstance(n));
+			return card;
+		}
+
+		@Override
+		Object create(EntityManager em, int n) {
+			MembershipCard card = (MembershipCard) newInstance(n);
+			em.persist(card.getOwner());
+			em.persist(card);
+			return card;
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			((MembershipCard) entity).setSigned(n % 2 == 0);
+		}
+	},
+
+	/**
+	 * The entity with a composite key (CourseRegistrationPK)
+	 */
+	COURSE_REGISTRATION(CourseRegistration.class) {
+		@Override
+		Object newInstance(int n) {
+			CourseRegistration registration = new CourseRegistration();
+			// Cascades to the student and the course
+			registration.setStudent((Student) STUDENT.newInstance(n));
+			registration.setCourse((Course) COURSE.newInstance(n));
+			registration.setNumericGrade(n % 100);
+			return registration;
+		}
+
+		@Override
+		Object id(Object entity) {
+			return ((CourseRegistration) entity).getId();
+		}
+
+		@Override
+		void modify(Object entity, int n) {
+			((CourseRegistration) entity).setNumericGrade(n % 100);
+		}
+	};
+
+	private final Class<?> type;
+
+	private EntityFixture(Class<?> type) {
+		this.type = type;
+	}
+
+	/**
+	 * @return Entity class
+	 */
+	Class<?> type() {
+		return type;
+	}
+
+	/**
+	 * @param n - unique number, used to make unique names and codes
+	 * @return New, not yet persisted instance with its required parents
+	 */
+	abstract Object newInstance(int n);
+
+	/**
+	 * Persist a new instance, and its parents, in the current transaction.
+	 *
+	 * @param em - EntityManager with an active transaction
+	 * @param n  - unique number, used to make unique names and codes
+	 * @return The persisted instance
+	 */
+	Object create(EntityManager em, int n) {
+		Object entity = newInstance(n);
+		em.persist(entity);
+		return entity;
+	}
+
+	/**
+	 * @return Primary key of <code>entity</code>, for {@link EntityManager#find(Class, Object)}
+	 */
+	Object id(Object entity) {
+		return ((PojoBase) entity).getId();
+	}
+
+	/**
+	 * Change a non-key column of <code>entity</code>, so a merge results in an UPDATE.
+	 */
+	abstract void modify(Object entity, int n);
+}
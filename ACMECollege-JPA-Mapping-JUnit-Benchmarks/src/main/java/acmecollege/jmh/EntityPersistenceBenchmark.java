@@ -0,0 +1,215 @@
+package acmecollege.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import acmecollege.pool.ConnectionProfile;
+import common.JUnitBase;
+
+/**
+ * Average time of the persistence paths of every entity ({@link EntityFixture}):  persist, find, merge and remove,
+ * each in its own EntityManager (and transaction for the writes), plus the Criteria queries of {@link JUnitBase}
+ * (getTotalCount and getAll) over {@link #rows} rows.  The bulk paths, {@link #persistRows()} and
+ * {@link #updateRows()}, write {@link #rows} instances in one transaction, that is where JDBC batching pays off.
+ * <p>
+ * Every path is measured for every {@link ConnectionProfile} ({@link #profile}), applied on top of the embedded DB
+ * properties the same way JUnitBase.buildEMF applies the selected one.  The Connector/J settings of a profile have no
+ * effect on H2, the Hibernate ones (batching, statement ordering) do.
+ * <p>
+ * Every measurement iteration starts from an emptied DB seeded with {@link #rows} instances of the entity.
+ * The instance removed by {@link #remove(Removable)} is created outside of the measurement, before every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+public class EntityPersistenceBenchmark extends JUnitBase {
+
+	@Param
+	public EntityFixture entity;
+
+	@Param("100")
+	public int rows;
+
+	@Param
+	public ConnectionProfile profile;
+
+	private int sequence;
+
+	private List<Object> ids;
+
+	private List<Object> detached;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void buildFactory() {
+		emf = buildEMF("acmecollege-PU", profile.properties(EmbeddedDatabase.PROPERTIES));
+	}
+
+	@TearDown(Level.Trial)
+	public void closeFactory() {
+		emf.close();
+	}
+
+	@Setup(Level.Iteration)
+	public void seed() {
+		deleteAllData();
+		ids = new ArrayList<>(rows);
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		for (int i = 0; i < rows; i++) {
+			ids.add(entity.id(entity.create(em, sequence++)));
+		}
+		et.commit();
+		em.close();
+
+		// Merged instances are loaded in another EntityManager, like an entity read by one request and changed by the next
+		detached = new ArrayList<>(rows);
+		em = getEntityManager();
+		for (Object id : ids) {
+			detached.add(em.find(entity.type(), id));
+		}
+		em.close();
+	}
+
+	/**
+	 * Instance to remove, a new one for every call of {@link EntityPersistenceBenchmark#remove(Removable)}
+	 */
+	@State(Scope.Thread)
+	public static class Removable {
+
+		Object id;
+
+		@Setup(Level.Invocation)
+		public void create(EntityPersistenceBenchmark benchmark) {
+			EntityManager em = getEntityManager();
+			EntityTransaction et = em.getTransaction();
+			et.begin();
+			id = benchmark.entity.id(benchmark.entity.create(em, benchmark.sequence++));
+			et.commit();
+			em.close();
+		}
+	}
+
+	private int nextIndex() {
+		next = (next + 1) % rows;
+		return next;
+	}
+
+	@Benchmark
+	public Object persist() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Object instance = entity.create(em, sequence++);
+		et.commit();
+		em.close();
+		return instance;
+	}
+
+	@Benchmark
+	public Object find() {
+		EntityManager em = getEntityManager();
+		Object instance = em.find(entity.type(), ids.get(nextIndex()));
+		em.close();
+		return instance;
+	}
+
+	@Benchmark
+	public Object merge() {
+		int index = nextIndex();
+		Object instance = detached.get(index);
+		entity.modify(instance, sequence++);
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Object merged = em.merge(instance);
+		et.commit();
+		em.close();
+		// Keep the copy with the new version, merging the old one again would fail the optimistic lock check
+		detached.set(index, merged);
+		return merged;
+	}
+
+	@Benchmark
+	public void remove(Removable removable) {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		em.remove(em.find(entity.type(), removable.id));
+		et.commit();
+		em.close();
+	}
+
+	/**
+	 * Persist {@link #rows} new instances in one transaction
+	 */
+	@Benchmark
+	public List<Object> persistRows() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<Object> instances = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			instances.add(entity.create(em, sequence++));
+		}
+		et.commit();
+		em.close();
+		return instances;
+	}
+
+	/**
+	 * Load all instances and change every one of them in one transaction
+	 */
+	@Benchmark
+	public List<?> updateRows() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<?> all = getAll(em, entity.type());
+		for (Object instance : all) {
+			entity.modify(instance, sequence++);
+		}
+		et.commit();
+		em.close();
+		return all;
+	}
+
+	@Benchmark
+	public long getTotalCount() {
+		EntityManager em = getEntityManager();
+		long count = getTotalCount(em, entity.type());
+		em.close();
+		return count;
+	}
+
+	@Benchmark
+	public List<?> getAll() {
+		EntityManager em = getEntityManager();
+		List<?> all = getAll(em, entity.type());
+		em.close();
+		return all;
+	}
+}
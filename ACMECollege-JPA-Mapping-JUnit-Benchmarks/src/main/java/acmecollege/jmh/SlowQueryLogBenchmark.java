@@ -0,0 +1,116 @@
+package acmecollege.jmh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import acmecollege.entity.Student;
+import acmecollege.logging.SlowQueryConnectionProvider;
+import acmecollege.logging.SlowQueryLog;
+import common.JUnitBase;
+
+/**
+ * Cost of {@link SlowQueryLog} for statements below its threshold, the usual case:  the same paths with the log on
+ * (threshold of persistence.xml, nothing is slow enough to be logged) and off (threshold -1, the connections of the
+ * pool are handed out as is).  No JFR recording runs, so no event is committed.
+ * <ul>
+ * <li>find - one SELECT by id, one bind parameter</li>
+ * <li>getAll - one SELECT of {@link #rows} rows</li>
+ * <li>persistRows - {@link #rows} INSERTs in JDBC batches, the bind parameters of every row are kept</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+public class SlowQueryLogBenchmark extends JUnitBase {
+
+	@Param({ "on", "off" })
+	public String slowQueryLog;
+
+	@Param("100")
+	public int rows;
+
+	private int sequence;
+
+	private List<Integer> ids;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void buildFactory() {
+		Map<String, Object> properties = new HashMap<>(EmbeddedDatabase.PROPERTIES);
+		if ("off".equals(slowQueryLog)) {
+			properties.put(SlowQueryConnectionProvider.THRESHOLD_SETTING, "-1");
+		}
+		emf = buildEMF("acmecollege-PU", properties);
+	}
+
+	@TearDown(Level.Trial)
+	public void closeFactory() {
+		emf.close();
+	}
+
+	@Setup(Level.Iteration)
+	public void seed() {
+		deleteAllData();
+		ids = new ArrayList<>(rows);
+		for (Object student : persistRows()) {
+			ids.add(((Student) student).getId());
+		}
+	}
+
+	@Benchmark
+	public Student find() {
+		next = (next + 1) % rows;
+		EntityManager em = getEntityManager();
+		Student student = em.find(Student.class, ids.get(next));
+		em.close();
+		return student;
+	}
+
+	@Benchmark
+	public List<Student> getAll() {
+		EntityManager em = getEntityManager();
+		List<Student> all = getAll(em, Student.class);
+		em.close();
+		return all;
+	}
+
+	@Benchmark
+	public List<Object> persistRows() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<Object> students = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			Object student = EntityFixture.STUDENT.newInstance(sequence++);
+			em.persist(student);
+			students.add(student);
+		}
+		et.commit();
+		em.close();
+		return students;
+	}
+}
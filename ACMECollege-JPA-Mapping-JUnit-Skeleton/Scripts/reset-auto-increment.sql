@@ -6,4 +6,6 @@ ALTER TABLE club_membership AUTO_INCREMENT = 1;
 ALTER TABLE membership_card AUTO_INCREMENT = 1;
 ALTER TABLE professor AUTO_INCREMENT = 1;
 ALTER TABLE course AUTO_INCREMENT = 1;
+-- Id's now come from the pooled table generator (see PojoBase), clearing it restarts every table at 1
+DELETE FROM id_generator;
 -- Note:  No auto_increment on course_registration table as it has a composite primary key
\ No newline at end of file
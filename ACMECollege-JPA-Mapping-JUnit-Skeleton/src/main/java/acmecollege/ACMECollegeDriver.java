@@ -11,16 +11,17 @@
 package acmecollege;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
-import javax.persistence.Persistence;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.graph.GraphSemantic;
 
 import acmecollege.entity.AcademicStudentClub;
 import acmecollege.entity.ClubMembership;
@@ -33,6 +34,10 @@ import acmecollege.entity.NonAcademicStudentClub;
 import acmecollege.entity.Professor;
 import acmecollege.entity.Student;
 import acmecollege.entity.StudentClub;
+import acmecollege.metrics.MetricsRegistry;
+import acmecollege.metrics.PersistenceMetrics;
+import acmecollege.pool.ConnectionProfile;
+import acmecollege.schema.SchemaFingerprint;
 
 /**
  * Used as starting point of application to simply create the DB on server or refresh it if needs be.
@@ -48,7 +53,10 @@ public class ACMECollegeDriver {
 	public static final String PERSISTENCE_UNIT = "acmecollege-PU";
 
 	public static void main(String[] args) {
-		EntityManagerFactory emf = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT);
+		EntityManagerFactory emf = SchemaFingerprint.createEntityManagerFactory(PERSISTENCE_UNIT,
+			ConnectionProfile.selected().properties());
+		// What the job did:  entity, query and cache counts, logged at the end
+		PersistenceMetrics metrics = new PersistenceMetrics(emf, MetricsRegistry.NONE);
 		EntityManager em = emf.createEntityManager();
 		// Two methods are just to check we can create and read for all tables.
 		// They can be commented out if not needed.
@@ -56,6 +64,7 @@ public class ACMECollegeDriver {
 		printData(em);
 		cleanData(em);
 		em.close();
+		metrics.log();
 		emf.close();
 	}
 	
@@ -105,7 +114,9 @@ public class ACMECollegeDriver {
 
 	private static void printData(EntityManager em) {
 
-		Student s = em.find(Student.class, 1);
+		// The transcript entity graph loads the student with its course registrations in a single SELECT
+		Student s = em.find(Student.class, 1,
+			Map.of(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph(Student.GRAPH_WITH_TRANSCRIPT)));
 		int sizeSCourseRegistrations = s.getCourseRegistrations().size();
 		int sizeMembershipCards = s.getMembershipCards().size();
 
@@ -0,0 +1,124 @@
+package acmecollege.boot;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.boot.archive.scan.internal.DisabledScanner;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.internal.ParsedPersistenceXmlDescriptor;
+import org.hibernate.jpa.boot.internal.PersistenceXmlParser;
+
+/**
+ * Shorter start-up of the {@link EntityManagerFactory}, for short-lived jobs like {@link acmecollege.ACMECollegeDriver}
+ * which pay it on every run.  Chosen with the system property {@value #SYSTEM_PROPERTY}
+ * (<code>-Dacmecollege.boot.fast=true</code>), off by default.
+ * <p>
+ * Compared to {@link Persistence#createEntityManagerFactory(String, Map)}:
+ * <ul>
+ * <li>a Persistence Unit with <code>exclude-unlisted-classes=false</code> gets the managed classes listed at build
+ * time by {@link ManagedClassIndex} instead of a scan of the classpath for annotated classes</li>
+ * <li>no scan for hbm.xml files and, if the unit has no mapping files, no look-up of META-INF/orm.xml</li>
+ * </ul>
+ * The mapping itself is still built from the annotations at every start-up:  Hibernate 5 cannot save it, its
+ * Metadata holds the service registry and the classes of the running JVM.  The DB metadata is still read at
+ * start-up too, without it (hibernate.temp.use_jdbc_metadata_defaults=false) Hibernate turns off JDBC batching.
+ * <p>
+ * Most of the first start-up of a JVM goes to loading and verifying the Hibernate classes, see
+ * acmecollege.benchmark.StartupPhasesBenchmark.  For a job run often, save them in a class data archive (the classes
+ * must come from jars, not from target/classes):  run the job once with
+ * <code>-XX:ArchiveClassesAtExit=acmecollege.jsa</code>, then start it with
+ * <code>-XX:SharedArchiveFile=acmecollege.jsa</code>.  Re-create the archive when a jar changes, the JVM ignores an
+ * archive that does not match the classpath.
+ */
+public final class FastBoot {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Name of the system property turning fast boot on, off by default
+	 */
+	public static final String SYSTEM_PROPERTY = "acmecollege.boot.fast";
+
+	/**
+	 * Settings adding mapping files to the Persistence Unit, including the legacy names (IdGenerationBenchmark uses
+	 * hibernate.ejb.xml_files)
+	 */
+	private static final List<String> MAPPING_FILE_SETTINGS = List.of(AvailableSettings.ORM_XML_FILES,
+		AvailableSettings.HBM_XML_FILES, "hibernate.ejb.xml_files", "hibernate.hbmxml.files");
+
+	private FastBoot() {
+	}
+
+	/**
+	 * @return True if the system property {@value #SYSTEM_PROPERTY} is true
+	 */
+	public static boolean isEnabled() {
+		return Boolean.getBoolean(SYSTEM_PROPERTY);
+	}
+
+	/**
+	 * Same as {@link Persistence#createEntityManagerFactory(String, Map)}, with the shorter start-up when fast boot is
+	 * on.
+	 *
+	 * @param persistenceUnitName - name of the Persistence Unit
+	 * @param properties          - properties overriding the ones in persistence.xml
+	 * @return An instance of EntityManagerFactory
+	 */
+	public static EntityManagerFactory createEntityManagerFactory(String persistenceUnitName,
+		Map<String, Object> properties) {
+		if (!isEnabled()) {
+			return Persistence.createEntityManagerFactory(persistenceUnitName, properties);
+		}
+		ParsedPersistenceXmlDescriptor unit = descriptor(persistenceUnitName, ManagedClassIndex.read());
+		return new EntityManagerFactoryBuilderImpl(unit, settings(unit, properties)).build();
+	}
+
+	/**
+	 * @param persistenceUnitName - name of the Persistence Unit
+	 * @param managedClasses      - classes listed by {@link ManagedClassIndex}
+	 * @return The Persistence Unit as in persistence.xml, with <code>managedClasses</code> instead of the scan of the
+	 *         classpath.  If the list is empty the unit is left as is.
+	 */
+	public static ParsedPersistenceXmlDescriptor descriptor(String persistenceUnitName, List<String> managedClasses) {
+		ParsedPersistenceXmlDescriptor unit = PersistenceXmlParser.locatePersistenceUnits(Map.of()).stream()
+			.filter(descriptor -> descriptor.getName().equals(persistenceUnitName))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("No Persistence Unit named " + persistenceUnitName));
+		if (!unit.isExcludeUnlistedClasses()) {
+			if (managedClasses.isEmpty()) {
+				LOG.warn("No {} on the classpath, the classes of {} are found by scanning", ManagedClassIndex.RESOURCE,
+					persistenceUnitName);
+				return unit;
+			}
+			unit.addClasses(managedClasses.stream()
+				.filter(name -> !unit.getManagedClassNames().contains(name))
+				.toArray(String[]::new));
+			unit.setExcludeUnlistedClasses(true);
+		}
+		return unit;
+	}
+
+	/**
+	 * @param unit       - Persistence Unit from {@link #descriptor(String, List)}
+	 * @param properties - properties overriding the ones in persistence.xml
+	 * @return <code>properties</code> with the settings skipping the look-ups not needed by <code>unit</code>
+	 */
+	public static Map<String, Object> settings(ParsedPersistenceXmlDescriptor unit, Map<String, Object> properties) {
+		Map<String, Object> settings = new HashMap<>();
+		if (unit.isExcludeUnlistedClasses()) {
+			settings.put(AvailableSettings.SCANNER, DisabledScanner.class.getName());
+		}
+		if (unit.getMappingFileNames().isEmpty() && MAPPING_FILE_SETTINGS.stream().noneMatch(properties::containsKey)) {
+			settings.put(AvailableSettings.XML_MAPPING_ENABLED, "false");
+		}
+		settings.putAll(properties);
+		return settings;
+	}
+}
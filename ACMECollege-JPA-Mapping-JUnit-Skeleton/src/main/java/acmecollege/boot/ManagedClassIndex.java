@@ -0,0 +1,110 @@
+package acmecollege.boot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.Embeddable;
+import javax.persistence.Entity;
+import javax.persistence.MappedSuperclass;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * List of the managed classes (entities, mapped superclasses and embeddables) written at build time, so
+ * {@link FastBoot} can hand them to Hibernate instead of having it scan the classpath.
+ * <p>
+ * The list is the resource {@value #RESOURCE}, one class name per line.  It is written by {@link #main(String[])}
+ * in the process-classes phase of the Maven build (exec-maven-plugin), from the compiled classes:  adding an entity
+ * needs no change to persistence.xml or to this list.
+ */
+public final class ManagedClassIndex {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Classpath resource holding the list
+	 */
+	public static final String RESOURCE = "META-INF/acmecollege-managed-classes.list";
+
+	private ManagedClassIndex() {
+	}
+
+	/**
+	 * Write the list of the managed classes found in a directory of compiled classes.
+	 *
+	 * @param args - the directory of the compiled classes, target/classes, also where the list is written
+	 * @throws IOException if the directory cannot be read or the list written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: ManagedClassIndex <classes directory>");
+		}
+		Path classes = Paths.get(args[0]);
+		List<String> managedClasses = find(classes);
+		Path list = classes.resolve(RESOURCE);
+		Files.createDirectories(list.getParent());
+		List<String> lines = new ArrayList<>();
+		lines.add("# Managed classes, generated by " + ManagedClassIndex.class.getName() + ", do not edit");
+		lines.addAll(managedClasses);
+		Files.write(list, lines, StandardCharsets.UTF_8);
+		LOG.info("{} managed classes listed in {}", managedClasses.size(), list);
+	}
+
+	/**
+	 * @param classes - directory of compiled classes, must be on the classpath
+	 * @return Names of the classes annotated with @Entity, @MappedSuperclass or @Embeddable, sorted
+	 * @throws IOException if the directory cannot be read
+	 */
+	static List<String> find(Path classes) throws IOException {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		try (Stream<Path> files = Files.walk(classes)) {
+			return files
+				.map(file -> classes.relativize(file).toString())
+				.filter(name -> name.endsWith(".class") && !name.endsWith("-info.class"))
+				.map(name -> name.substring(0, name.length() - ".class".length()).replace('\\', '/').replace('/', '.'))
+				.filter(name -> isManaged(name, loader))
+				.sorted()
+				.collect(Collectors.toList());
+		}
+	}
+
+	private static boolean isManaged(String className, ClassLoader loader) {
+		try {
+			// Not initialized, only the annotations are read
+			Class<?> type = Class.forName(className, false, loader);
+			return type.isAnnotationPresent(Entity.class) || type.isAnnotationPresent(MappedSuperclass.class)
+				|| type.isAnnotationPresent(Embeddable.class);
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return The classes in the list, empty if there is no list on the classpath (not built by Maven)
+	 */
+	public static List<String> read() {
+		try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(RESOURCE)) {
+			if (in == null) {
+				return List.of();
+			}
+			return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines()
+				.map(String::trim)
+				.filter(line -> !line.isEmpty() && !line.startsWith("#"))
+				.collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -56,9 +56,10 @@ public class ClubMembership extends PojoBase implements Serializable {
 
 	public void setStudentClub(StudentClub club) {
 		this.club = club;
-		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships)
+		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships),
+		//but only if it is already loaded, see Relationships
 		if (club != null) {
-			club.getClubMemberships().add(this);
+			Relationships.addToInverseSide(club, club::getClubMemberships, this);
 		}
 	}
 
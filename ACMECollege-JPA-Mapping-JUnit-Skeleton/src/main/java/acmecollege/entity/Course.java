@@ -14,6 +14,7 @@ import java.util.Set;
 
 import javax.persistence.AttributeOverride;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -22,6 +23,13 @@ import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 @SuppressWarnings("unused")
 
 /**
@@ -31,11 +39,19 @@ import javax.persistence.Table;
 @Entity
 @Table(name = "course")
 @NamedQuery(name = "Course.findAll", query = "SELECT c FROM Course c")
+// Course is read far more than it is written:  second-level cache, READ_WRITE keeps it consistent with updates
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Looked up by code, year and semester (see acmecollege.query.NaturalIdReader):  the key is resolved to the id through
+// its own region, then the Course comes from the region above
+@NaturalIdCache
 @AttributeOverride(name = "id", column = @Column(name = "course_id"))
 public class Course extends PojoBase implements Serializable {
 	private static final long serialVersionUID = 1L;
 
 
+	// Natural id, unique index code_year_semester_UNIQUE.  Mutable:  a course can be renamed or moved to another term
+	@NaturalId(mutable = true)
 	@Basic(optional = false)
 	@Column(name = "course_code", nullable = false, length = 7)
 	private String courseCode;
@@ -46,11 +62,13 @@ public class Course extends PojoBase implements Serializable {
 	private String courseTitle;
 
 
+	@NaturalId(mutable = true)
 	@Basic(optional = false)
 	@Column(name = "year")
 	private int year;
 
 
+	@NaturalId(mutable = true)
 	@Basic(optional = false)
 	@Column(name = "semester", nullable = false, length = 6)
 	private String semester;
@@ -62,7 +80,10 @@ public class Course extends PojoBase implements Serializable {
 	@Column(name = "online")
 	private byte online;
 
+	// EXTRA:  size(), isEmpty() and contains() run a COUNT/EXISTS query instead of loading every registration
 	@OneToMany(cascade=CascadeType.MERGE, fetch = FetchType.LAZY, mappedBy = "course")
+	@LazyCollection(LazyCollectionOption.EXTRA)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	private Set<CourseRegistration> courseRegistrations = new HashSet<>();
 
 	public Course() {
@@ -14,6 +14,7 @@ import java.util.Objects;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
@@ -25,6 +26,9 @@ import javax.persistence.MapsId;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @SuppressWarnings("unused")
 /**
  * The persistent class for the course_registration database table.
@@ -33,6 +37,9 @@ import javax.persistence.Table;
 @Table(name = "course_registration")
 @Access(AccessType.FIELD)
 @NamedQuery(name = "CourseRegistration.findAll", query = "SELECT cr FROM CourseRegistration cr")
+// Cached so that a cache hit on Course.courseRegistrations (which only holds keys) does not turn into one SELECT per row
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CourseRegistration extends PojoBaseCompositeKey<CourseRegistrationPK> implements Serializable {
 	private static final long serialVersionUID = 1L;
 
@@ -82,9 +89,10 @@ public class CourseRegistration extends PojoBaseCompositeKey<CourseRegistrationP
 
 	public void setStudent(Student student) {
 		this.student = student;
-		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships)
+		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships),
+		//but only if it is already loaded, see Relationships
 		if (student != null) {
-			student.getCourseRegistrations().add(this);
+			Relationships.addToInverseSide(student, student::getCourseRegistrations, this);
 		}
 	}
 
@@ -94,9 +102,10 @@ public class CourseRegistration extends PojoBaseCompositeKey<CourseRegistrationP
 
 	public void setCourse(Course course) {
 		this.course = course;
-		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships)
+		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships),
+		//but only if it is already loaded, see Relationships
 		if (course != null) {
-			course.getCourseRegistrations().add(this);
+			Relationships.addToInverseSide(course, course::getCourseRegistrations, this);
 		}
 	}
 
@@ -106,9 +115,10 @@ public class CourseRegistration extends PojoBaseCompositeKey<CourseRegistrationP
 
 	public void setProfessor(Professor professor) {
 		this.professor = professor;
-		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships)
+		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships),
+		//but only if it is already loaded, see Relationships
 		if (professor != null) {
-			professor.getCourseRegistrations().add(this);
+			Relationships.addToInverseSide(professor, professor::getCourseRegistrations, this);
 		}
 	}
 
@@ -35,8 +35,8 @@ public class MembershipCard extends PojoBase implements Serializable {
 	@JoinColumn(name = "membership_id")
 	private ClubMembership clubMembership;
 
-	@ManyToOne
-	@JoinColumn(name="student_id")
+	@ManyToOne(optional = false)
+	@JoinColumn(name="student_id", nullable = false)
 	private Student owner;
 
     @Column(name = "signed")
@@ -71,9 +71,10 @@ public class MembershipCard extends PojoBase implements Serializable {
 
 	public void setOwner(Student owner) {
 		this.owner = owner;
-		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships)
+		//We must manually set the 'other' side of the relationship (JPA does not 'do' auto-management of relationships),
+		//but only if it is already loaded, see Relationships
 		if (owner != null) {
-			owner.getMembershipCards().add(this);
+			Relationships.addToInverseSide(owner, owner::getMembershipCards, this);
 		}
 	}
 
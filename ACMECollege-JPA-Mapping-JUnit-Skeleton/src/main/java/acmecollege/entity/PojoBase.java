@@ -23,6 +23,9 @@ import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import javax.persistence.Version;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 /**
  * Abstract class that is base of (class) hierarchy for all @Entity classes
  */
@@ -32,8 +35,31 @@ import javax.persistence.Version;
 public abstract class PojoBase implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Name of the pooled table-backed generator shared by all entities in this hierarchy
+	 */
+	public static final String ID_GENERATOR = "acmecollege-id-generator";
+
+	/**
+	 * Number of id's handed out per round trip to the id_generator table, should be kept in line with
+	 * hibernate.jdbc.batch_size in persistence.xml
+	 */
+	public static final int ID_ALLOCATION_SIZE = 50;
+
+	// IDENTITY forces Hibernate to execute each INSERT right away to learn the new id, which disables JDBC batching.
+	// A table-backed generator works on MySQL (no sequences) and, with the pooled-lo optimizer, reserves a block of
+	// ID_ALLOCATION_SIZE id's per allocation.  Each table gets its own row (segment) in id_generator.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_GENERATOR)
+    @GenericGenerator(name = ID_GENERATOR, strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+    	@Parameter(name = "table_name", value = "id_generator"),
+    	@Parameter(name = "segment_column_name", value = "sequence_name"),
+    	@Parameter(name = "value_column_name", value = "next_val"),
+    	@Parameter(name = "prefer_entity_table_as_segment_value", value = "true"),
+    	@Parameter(name = "initial_value", value = "1"),
+    	@Parameter(name = "increment_size", value = "" + ID_ALLOCATION_SIZE),
+    	@Parameter(name = "optimizer", value = "pooled-lo")
+    })
 	protected int id;
 
     @Version
@@ -15,6 +15,7 @@ import java.util.Set;
 
 import javax.persistence.AttributeOverride;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -25,6 +26,11 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+
 @SuppressWarnings("unused")
 
 /**
@@ -40,6 +46,10 @@ import javax.persistence.Transient;
 //Hint - @NamedQuery uses the name which is defined in @Entity for JPQL, if no name is defined use class name.
 //Hint - @NamedNativeQuery can optionally be used if there is a need for SQL query.
 @NamedQuery(name = "Professor.findAll", query = "SELECT p FROM Professor p")
+//Hint - @Cacheable (with shared-cache-mode ENABLE_SELECTIVE) puts this entity in the second-level cache.
+//Hint - @Cache picks the concurrency strategy, READ_WRITE never returns stale data after an update.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 //Hint - @AttributeOverride can override column details.  This entity uses professor_id as its primary key name, it needs to override the name in the mapped super class.
 @AttributeOverride(name = "id", column = @Column(name = "professor_id"))
 //Hint - PojoBase is inherited by any entity with integer as their primary key.
@@ -77,6 +87,8 @@ public class Professor extends PojoBase implements Serializable {
 	// Hint - @OneToMany option cascade will be ignored if not added, meaning no cascade effect.
 	// Hint - @OneToMany option fetch should be lazy to prevent eagerly initializing all the data.
 	@OneToMany(cascade=CascadeType.MERGE, fetch = FetchType.LAZY, mappedBy = "professor")
+	// Hint - @LazyCollection(EXTRA) makes size(), isEmpty() and contains() query the DB instead of loading the whole collection.
+	@LazyCollection(LazyCollectionOption.EXTRA)
 	// Hint - java.util.Set is used as a collection, however List could have been used as well.
 	// Hint - java.util.Set will be unique and also possibly can provide better get performance with HashCode.
 	private Set<CourseRegistration> courseRegistrations = new HashSet<>();
@@ -0,0 +1,42 @@
+package acmecollege.entity;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Maintenance of the 'other' (inverse, mappedBy) side of bi-directional relationships, used by setters such as
+ * {@link CourseRegistration#setCourse(Course)}.
+ * <p>
+ * The element is added only when the inverse collection is already in memory.  If the owner is an uninitialized
+ * proxy (<code>em.getReference</code>) or its collection has not been loaded yet, nothing is done:  calling
+ * <code>add</code> there would load the whole collection (thousands of registrations for a large course) just to
+ * append one element.  The owning side is what gets written to the DB, so the new element shows up the next time the
+ * collection is loaded after a flush.
+ * <p>
+ * New entities (plain {@link java.util.HashSet}) and loaded collections are updated in memory, as before.
+ */
+final class Relationships {
+
+	private Relationships() {
+	}
+
+	/**
+	 * Add <code>element</code> to the inverse side of a relationship if that side is loaded.
+	 *
+	 * @param <E>         - type of the collection elements
+	 * @param owner       - entity on the inverse side, for example the Course of a CourseRegistration
+	 * @param inverseSide - getter of the inverse collection on the owner, only called if the owner is initialized
+	 * @param element     - entity on the owning side
+	 */
+	static <E> void addToInverseSide(Object owner, Supplier<? extends Collection<E>> inverseSide, E element) {
+		if (!Hibernate.isInitialized(owner)) {
+			return;
+		}
+		Collection<E> collection = inverseSide.get();
+		if (Hibernate.isInitialized(collection)) {
+			collection.add(element);
+		}
+	}
+}
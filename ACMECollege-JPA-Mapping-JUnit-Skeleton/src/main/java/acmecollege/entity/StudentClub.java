@@ -13,6 +13,8 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import javax.persistence.AttributeOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
@@ -25,21 +27,37 @@ import javax.persistence.InheritanceType;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 /**
  * The persistent class for the student_club database table.
  */
 @Entity
 @Table(name = "student_club")
-//@AttributeOverride(name = "id", column = @Column(name = "club_id"))
+// Cached at the root of the hierarchy, AcademicStudentClub and NonAcademicStudentClub share the region
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Looked up by name (see acmecollege.query.NaturalIdReader), resolved to the id through its own region
+@NaturalIdCache
+@AttributeOverride(name = "id", column = @Column(name = "club_id"))
 @Inheritance(strategy=InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "academic", columnDefinition = "BIT(1)", discriminatorType = DiscriminatorType.INTEGER)
 public abstract class StudentClub extends PojoBase implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	// Natural id, unique index name_UNIQUE.  Mutable:  a club can be renamed
+	@NaturalId(mutable = true)
 	@Column(name = "name", nullable = false, length = 100)
 	private String name;
 
+	// EXTRA:  size(), isEmpty() and contains() run a COUNT/EXISTS query instead of loading every membership
 	@OneToMany(cascade=CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "club")
+	@LazyCollection(LazyCollectionOption.EXTRA)
 	private Set<ClubMembership> clubMemberships = new HashSet<>();
 
 	public StudentClub() {
@@ -0,0 +1,317 @@
+package acmecollege.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import acmecollege.ACMECollegeDriver;
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.CourseRegistrationPK;
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import acmecollege.pool.ConnectionProfile;
+
+/**
+ * Streams {@link CourseRegistration} rows from a CSV file into the DB using a Hibernate {@link StatelessSession}.
+ * <p>
+ * Expected columns (a header line starting with <code>student_id</code> is skipped):
+ *
+ * <pre>
+ * student_id,course_id,professor_id,numeric_grade,letter_grade
+ * </pre>
+ *
+ * professor_id, numeric_grade and letter_grade may be left empty.
+ * <p>
+ * Memory use does not depend on the size of the file:  lines are read one at a time, a stateless session has no
+ * persistence context, and at most {@link #getCommitInterval()} parsed rows are held at once (so a chunk can be
+ * replayed row-by-row if the DB refuses it).  {@link Student}, {@link Course} and {@link Professor} are referenced
+ * by id only, they are never loaded.
+ */
+public class CourseRegistrationImporter {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	public static final int DEFAULT_BATCH_SIZE = 50;
+
+	public static final int DEFAULT_COMMIT_INTERVAL = 1_000;
+
+	private static final String HEADER_PREFIX = "student_id";
+
+	private final SessionFactory sessionFactory;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private int commitInterval = DEFAULT_COMMIT_INTERVAL;
+
+	public CourseRegistrationImporter(EntityManagerFactory emf) {
+		Objects.requireNonNull(emf, "EntityManagerFactory cannot be null");
+		this.sessionFactory = emf.unwrap(SessionFactory.class);
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param batchSize - number of INSERT's sent to the DB in one JDBC batch
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be at least 1");
+		}
+		this.batchSize = batchSize;
+	}
+
+	public int getCommitInterval() {
+		return commitInterval;
+	}
+
+	/**
+	 * @param commitInterval - number of rows written per transaction
+	 */
+	public void setCommitInterval(int commitInterval) {
+		if (commitInterval < 1) {
+			throw new IllegalArgumentException("Commit interval must be at least 1");
+		}
+		this.commitInterval = commitInterval;
+	}
+
+	/**
+	 * Import all the rows of a CSV file (UTF-8).
+	 *
+	 * @param csv - file to import
+	 * @return Counts and throughput of the import
+	 * @throws IOException if the file cannot be read
+	 */
+	public ImportReport importCsv(Path csv) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+			return importCsv(reader);
+		}
+	}
+
+	/**
+	 * Import all the rows available from the reader, the reader is not closed.
+	 *
+	 * @param csv - CSV content to import
+	 * @return Counts and throughput of the import
+	 * @throws IOException if the reader fails
+	 */
+	public ImportReport importCsv(Reader csv) throws IOException {
+		BufferedReader reader = csv instanceof BufferedReader buffered ? buffered : new BufferedReader(csv);
+		ImportReport report = new ImportReport();
+		long start = System.nanoTime();
+		List<Row> chunk = new ArrayList<>(Math.min(commitInterval, 10_000));
+
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			session.setJdbcBatchSize(batchSize);
+			String line;
+			long lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || (lineNumber == 1 && line.trim().startsWith(HEADER_PREFIX))) {
+					continue;
+				}
+				report.rowRead();
+				try {
+					chunk.add(Row.parse(lineNumber, line));
+				} catch (IllegalArgumentException e) {
+					reject(report, lineNumber, e.getMessage());
+					continue;
+				}
+				if (chunk.size() == commitInterval) {
+					writeChunk(session, chunk, report);
+					chunk.clear();
+				}
+			}
+			if (!chunk.isEmpty()) {
+				writeChunk(session, chunk, report);
+			}
+		}
+
+		report.setElapsedNanos(System.nanoTime() - start);
+		LOG.info("CourseRegistration import finished: {}", report);
+		return report;
+	}
+
+	/**
+	 * Insert one chunk in its own transaction.  The pending JDBC batch is sent on commit, so a single bad row
+	 * (duplicate key, unknown student, etc.) fails the whole chunk.  In that case the chunk is rolled back and
+	 * replayed one row per transaction to isolate the rejected rows.
+	 */
+	private void writeChunk(StatelessSession session, List<Row> chunk, ImportReport report) {
+		LocalDateTime now = LocalDateTime.now();
+		Transaction tx = session.beginTransaction();
+		try {
+			for (Row row : chunk) {
+				session.insert(row.toEntity(now));
+			}
+			tx.commit();
+			report.rowsInserted(chunk.size());
+			report.chunkCommitted();
+			return;
+		} catch (PersistenceException e) {
+			rollback(tx);
+			LOG.debug("Chunk of {} rows failed, retrying row-by-row", chunk.size(), e);
+		}
+
+		for (Row row : chunk) {
+			Transaction rowTx = session.beginTransaction();
+			try {
+				session.insert(row.toEntity(now));
+				rowTx.commit();
+				report.rowsInserted(1);
+			} catch (PersistenceException e) {
+				rollback(rowTx);
+				reject(report, row.lineNumber, rootCause(e).getMessage());
+			}
+		}
+		report.chunkCommitted();
+	}
+
+	private static void rollback(Transaction tx) {
+		if (tx.isActive()) {
+			tx.rollback();
+		}
+	}
+
+	private static void reject(ImportReport report, long lineNumber, String reason) {
+		report.rowRejected();
+		LOG.warn("Rejected line {}: {}", lineNumber, reason);
+	}
+
+	private static Throwable rootCause(Throwable e) {
+		Throwable cause = e;
+		while (cause.getCause() != null && cause.getCause() != cause) {
+			cause = cause.getCause();
+		}
+		return cause;
+	}
+
+	/**
+	 * One parsed line of the CSV file
+	 */
+	private static class Row {
+
+		private final long lineNumber;
+		private final int studentId;
+		private final int courseId;
+		private final Integer professorId;
+		private final int numericGrade;
+		private final String letterGrade;
+
+		private Row(long lineNumber, int studentId, int courseId, Integer professorId, int numericGrade,
+			String letterGrade) {
+			this.lineNumber = lineNumber;
+			this.studentId = studentId;
+			this.courseId = courseId;
+			this.professorId = professorId;
+			this.numericGrade = numericGrade;
+			this.letterGrade = letterGrade;
+		}
+
+		static Row parse(long lineNumber, String line) {
+			String[] columns = line.split(",", -1);
+			if (columns.length != 5) {
+				throw new IllegalArgumentException("expected 5 columns but found " + columns.length);
+			}
+			int studentId = parseId("student_id", columns[0]);
+			int courseId = parseId("course_id", columns[1]);
+			Integer professorId = columns[2].isBlank() ? null : parseId("professor_id", columns[2]);
+			int numericGrade = columns[3].isBlank() ? 0 : parseInt("numeric_grade", columns[3]);
+			String letterGrade = columns[4].isBlank() ? null : columns[4].trim();
+			if (numericGrade < 0 || numericGrade > 100) {
+				throw new IllegalArgumentException("numeric_grade must be between 0 and 100: " + numericGrade);
+			}
+			if (letterGrade != null && letterGrade.length() > 3) {
+				throw new IllegalArgumentException("letter_grade is longer than 3 characters: " + letterGrade);
+			}
+			return new Row(lineNumber, studentId, courseId, professorId, numericGrade, letterGrade);
+		}
+
+		private static int parseId(String column, String value) {
+			int id = parseInt(column, value);
+			if (id < 1) {
+				throw new IllegalArgumentException(column + " must be positive: " + id);
+			}
+			return id;
+		}
+
+		private static int parseInt(String column, String value) {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(column + " is not a number: '" + value + "'");
+			}
+		}
+
+		/**
+		 * Build a new {@link CourseRegistration} whose student, course and professor are id-only references.<br>
+		 * A stateless session only needs their id's to write the foreign keys.  New reference objects are created
+		 * every time so nothing accumulates in their (unused) inverse collections.
+		 */
+		CourseRegistration toEntity(LocalDateTime now) {
+			CourseRegistration registration = new CourseRegistration();
+			registration.setId(new CourseRegistrationPK(studentId, courseId));
+			registration.setStudent(reference(new Student(), studentId));
+			registration.setCourse(reference(new Course(), courseId));
+			if (professorId != null) {
+				registration.setProfessor(reference(new Professor(), professorId));
+			}
+			registration.setNumericGrade(numericGrade);
+			registration.setLetterGrade(letterGrade);
+			// Entity listeners are not called by a stateless session
+			registration.setCreated(now);
+			registration.setUpdated(now);
+			return registration;
+		}
+
+		private static <T extends PojoBase> T reference(T entity, int id) {
+			entity.setId(id);
+			return entity;
+		}
+	}
+
+	/**
+	 * Import a CSV file from the command line:  <code>CourseRegistrationImporter &lt;file.csv&gt;</code><br>
+	 * Batch size and commit interval can be set with -Dimport.batchSize and -Dimport.commitInterval.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			LOG.error("Usage: CourseRegistrationImporter <file.csv>");
+			return;
+		}
+		// Import into the existing schema, the default drop-and-create would wipe the tables first
+		Map<String, Object> properties = ConnectionProfile.selected()
+			.properties(Map.of("javax.persistence.schema-generation.database.action", "none"));
+		EntityManagerFactory emf = Persistence.createEntityManagerFactory(ACMECollegeDriver.PERSISTENCE_UNIT, properties);
+		try {
+			CourseRegistrationImporter importer = new CourseRegistrationImporter(emf);
+			importer.setBatchSize(Integer.getInteger("import.batchSize", DEFAULT_BATCH_SIZE));
+			importer.setCommitInterval(Integer.getInteger("import.commitInterval", DEFAULT_COMMIT_INTERVAL));
+			importer.importCsv(Paths.get(args[0]));
+		} finally {
+			emf.close();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package acmecollege.importer;
+
+/**
+ * Outcome of one {@link CourseRegistrationImporter} run:  row counts and throughput.<br>
+ * Only counters are kept (rejected rows are logged as they happen) so the report stays the same size no matter how
+ * big the input is.
+ */
+public class ImportReport {
+
+	private long rowsRead;
+	private long rowsInserted;
+	private long rowsRejected;
+	private long chunksCommitted;
+	private long elapsedNanos;
+
+	void rowRead() {
+		rowsRead++;
+	}
+
+	void rowsInserted(int count) {
+		rowsInserted += count;
+	}
+
+	void rowRejected() {
+		rowsRejected++;
+	}
+
+	void chunkCommitted() {
+		chunksCommitted++;
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return Number of data rows read from the input (header and blank lines are not counted)
+	 */
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	public long getRowsInserted() {
+		return rowsInserted;
+	}
+
+	/**
+	 * @return Number of rows that could not be parsed or were refused by the database
+	 */
+	public long getRowsRejected() {
+		return rowsRejected;
+	}
+
+	public long getChunksCommitted() {
+		return chunksCommitted;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+
+	/**
+	 * @return Inserted rows per second over the whole run
+	 */
+	public double getRowsPerSecond() {
+		return elapsedNanos == 0 ? 0 : rowsInserted * 1_000_000_000d / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImportReport [rowsRead = ");
+		builder.append(rowsRead);
+		builder.append(", rowsInserted = ");
+		builder.append(rowsInserted);
+		builder.append(", rowsRejected = ");
+		builder.append(rowsRejected);
+		builder.append(", chunksCommitted = ");
+		builder.append(chunksCommitted);
+		builder.append(", elapsedMillis = ");
+		builder.append(getElapsedMillis());
+		builder.append(", rowsPerSecond = ");
+		builder.append(String.format("%.1f", getRowsPerSecond()));
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,17 @@
+package acmecollege.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The commit of a transaction after its flush (a {@link FlushEvent} of its own):  the JDBC commit and the
+ * second-level cache updates
+ */
+@Name("acmecollege.Commit")
+@Label("Commit")
+@Category({ "ACME College", "Persistence" })
+@Description("JDBC commit of a transaction and the cache updates following it, flush excluded")
+public final class CommitEvent extends jdk.jfr.Event {
+}
@@ -0,0 +1,26 @@
+package acmecollege.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One <code>persist</code>, <code>find</code>, <code>merge</code> or <code>remove</code> called by the application,
+ * cascades included in its duration
+ */
+@Name("acmecollege.EntityOperation")
+@Label("Entity Operation")
+@Category({ "ACME College", "Persistence" })
+@Description("persist, find, merge or remove of an entity")
+public final class EntityOperationEvent extends jdk.jfr.Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Entity Class")
+	Class<?> entityClass;
+
+	@Label("Id")
+	String id;
+}
@@ -0,0 +1,27 @@
+package acmecollege.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One flush of a persistence context, explicit (commit, <code>em.flush()</code>) or automatic (before a query)
+ */
+@Name("acmecollege.Flush")
+@Label("Flush")
+@Category({ "ACME College", "Persistence" })
+@Description("Flush of the persistence context, with the entities and collections it went through")
+public final class FlushEvent extends jdk.jfr.Event {
+
+	@Label("Entities")
+	@Description("Entities in the persistence context, each one dirty-checked")
+	int entities;
+
+	@Label("Collections")
+	int collections;
+
+	@Label("Automatic")
+	@Description("Flush before a query, whose tables have pending changes")
+	boolean automatic;
+}
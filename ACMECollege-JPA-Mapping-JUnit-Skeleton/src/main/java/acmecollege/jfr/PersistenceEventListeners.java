@@ -0,0 +1,225 @@
+package acmecollege.jfr;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.DeleteEvent;
+import org.hibernate.event.spi.DeleteEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.MergeEvent;
+import org.hibernate.event.spi.MergeEventListener;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * Hibernate event listeners wrapping the ones Hibernate registered (JPA callbacks included) to time them in a JFR
+ * event.  Only the calls of the application are recorded, not the cascades, whose time is part of the call that
+ * triggered them.  The event details (class, id) are looked up only when the event is recorded.
+ */
+final class PersistenceEventListeners {
+
+	private PersistenceEventListeners() {
+	}
+
+	private static Class<?> entityClass(Object entity) {
+		return entity instanceof HibernateProxy
+			? ((HibernateProxy) entity).getHibernateLazyInitializer().getPersistentClass()
+			: entity.getClass();
+	}
+
+	private static void commit(EntityOperationEvent event, String operation, EventSource session, Object entity) {
+		if (event.shouldCommit() && entity != null) {
+			event.operation = operation;
+			event.entityClass = entityClass(entity);
+			Serializable id = session.getContextEntityIdentifier(entity);
+			event.id = id == null ? null : id.toString();
+			event.commit();
+		}
+	}
+
+	static final class Persist implements PersistEventListener {
+		private static final long serialVersionUID = 1L;
+		private final List<PersistEventListener> delegates;
+
+		Persist(List<PersistEventListener> delegates) {
+			this.delegates = delegates;
+		}
+
+		@Override
+		public void onPersist(PersistEvent event) {
+			EntityOperationEvent jfrEvent = new EntityOperationEvent();
+			jfrEvent.begin();
+			for (PersistEventListener delegate : delegates) {
+				delegate.onPersist(event);
+			}
+			commit(jfrEvent, "persist", event.getSession(), event.getObject());
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void onPersist(PersistEvent event, Map createdAlready) {
+			for (PersistEventListener delegate : delegates) {
+				delegate.onPersist(event, createdAlready);
+			}
+		}
+	}
+
+	/**
+	 * <code>em.find</code> and <code>em.getReference</code> of the application, as well as the initialization of a
+	 * lazy proxy.  The loads of the associations of an entity (eager or not) are part of the load of the entity, the
+	 * lookup of the managed copy by <code>merge</code> is a find nested in the merge.
+	 */
+	static final class Load implements LoadEventListener {
+		private static final long serialVersionUID = 1L;
+		private final List<LoadEventListener> delegates;
+
+		Load(List<LoadEventListener> delegates) {
+			this.delegates = delegates;
+		}
+
+		private static String operation(LoadType loadType) {
+			if (loadType == GET) {
+				return "find";
+			} else if (loadType == LOAD) {
+				return "getReference";
+			} else if (loadType == IMMEDIATE_LOAD) {
+				return "initialize";
+			}
+			return null;
+		}
+
+		@Override
+		public void onLoad(LoadEvent event, LoadType loadType) {
+			String operation = operation(loadType);
+			if (operation == null) {
+				for (LoadEventListener delegate : delegates) {
+					delegate.onLoad(event, loadType);
+				}
+				return;
+			}
+			EntityOperationEvent jfrEvent = new EntityOperationEvent();
+			jfrEvent.begin();
+			for (LoadEventListener delegate : delegates) {
+				delegate.onLoad(event, loadType);
+			}
+			if (jfrEvent.shouldCommit()) {
+				jfrEvent.operation = operation;
+				jfrEvent.entityClass = event.getSession().getFactory().getMetamodel()
+					.entityPersister(event.getEntityClassName()).getMappedClass();
+				jfrEvent.id = String.valueOf(event.getEntityId());
+				jfrEvent.commit();
+			}
+		}
+	}
+
+	static final class Merge implements MergeEventListener {
+		private static final long serialVersionUID = 1L;
+		private final List<MergeEventListener> delegates;
+
+		Merge(List<MergeEventListener> delegates) {
+			this.delegates = delegates;
+		}
+
+		@Override
+		public void onMerge(MergeEvent event) {
+			EntityOperationEvent jfrEvent = new EntityOperationEvent();
+			jfrEvent.begin();
+			for (MergeEventListener delegate : delegates) {
+				delegate.onMerge(event);
+			}
+			commit(jfrEvent, "merge", event.getSession(), event.getResult());
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void onMerge(MergeEvent event, Map copiedAlready) {
+			for (MergeEventListener delegate : delegates) {
+				delegate.onMerge(event, copiedAlready);
+			}
+		}
+	}
+
+	static final class Delete implements DeleteEventListener {
+		private static final long serialVersionUID = 1L;
+		private final List<DeleteEventListener> delegates;
+
+		Delete(List<DeleteEventListener> delegates) {
+			this.delegates = delegates;
+		}
+
+		@Override
+		public void onDelete(DeleteEvent event) {
+			EntityOperationEvent jfrEvent = new EntityOperationEvent();
+			jfrEvent.begin();
+			for (DeleteEventListener delegate : delegates) {
+				delegate.onDelete(event);
+			}
+			commit(jfrEvent, "remove", event.getSession(), event.getObject());
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void onDelete(DeleteEvent event, Set transientEntities) {
+			for (DeleteEventListener delegate : delegates) {
+				delegate.onDelete(event, transientEntities);
+			}
+		}
+	}
+
+	static final class Flush implements FlushEventListener {
+		private static final long serialVersionUID = 1L;
+		private final List<FlushEventListener> delegates;
+
+		Flush(List<FlushEventListener> delegates) {
+			this.delegates = delegates;
+		}
+
+		@Override
+		public void onFlush(org.hibernate.event.spi.FlushEvent event) {
+			FlushEvent jfrEvent = new FlushEvent();
+			jfrEvent.begin();
+			for (FlushEventListener delegate : delegates) {
+				delegate.onFlush(event);
+			}
+			if (jfrEvent.shouldCommit()) {
+				jfrEvent.entities = event.getNumberOfEntitiesProcessed();
+				jfrEvent.collections = event.getNumberOfCollectionsProcessed();
+				jfrEvent.commit();
+			}
+		}
+	}
+
+	/**
+	 * Recorded only when the query needed a flush, the check alone is not a flush
+	 */
+	static final class AutoFlush implements AutoFlushEventListener {
+		private static final long serialVersionUID = 1L;
+		private final List<AutoFlushEventListener> delegates;
+
+		AutoFlush(List<AutoFlushEventListener> delegates) {
+			this.delegates = delegates;
+		}
+
+		@Override
+		public void onAutoFlush(org.hibernate.event.spi.AutoFlushEvent event) {
+			FlushEvent jfrEvent = new FlushEvent();
+			jfrEvent.begin();
+			for (AutoFlushEventListener delegate : delegates) {
+				delegate.onAutoFlush(event);
+			}
+			if (event.isFlushRequired() && jfrEvent.shouldCommit()) {
+				jfrEvent.entities = event.getNumberOfEntitiesProcessed();
+				jfrEvent.collections = event.getNumberOfCollectionsProcessed();
+				jfrEvent.automatic = true;
+				jfrEvent.commit();
+			}
+		}
+	}
+}
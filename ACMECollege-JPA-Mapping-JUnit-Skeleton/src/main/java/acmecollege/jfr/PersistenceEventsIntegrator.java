@@ -0,0 +1,64 @@
+package acmecollege.jfr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Adds the JFR events of the package to every Persistence Unit, registered in
+ * META-INF/services/org.hibernate.integrator.spi.Integrator:  the {@link EntityOperationEvent} and
+ * {@link FlushEvent} by wrapping the Hibernate event listeners.  The {@link TransactionEvent} and
+ * {@link CommitEvent} come from {@link TransactionEventInterceptor}, the {@link QueryExecutionEvent} from
+ * {@link acmecollege.logging.SlowQueryLog}.
+ * <p>
+ * The events are off unless a recording enables them (<code>-XX:StartFlightRecording</code> with a .jfc file enabling
+ * acmecollege.*, or <code>jcmd &lt;pid&gt; JFR.start settings=...</code>).  Off, an event costs one allocation the JIT
+ * removes and one check of a static flag, so the wrappers stay in place:  {@value #ENABLED_SETTING}=false in
+ * persistence.xml removes them altogether.
+ */
+public class PersistenceEventsIntegrator implements Integrator {
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Persistence Unit property, false to leave the Hibernate event listeners unwrapped
+	 */
+	public static final String ENABLED_SETTING = "acmecollege.jfr.enabled";
+
+	@Override
+	public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+		SessionFactoryServiceRegistry serviceRegistry) {
+		if ("false".equalsIgnoreCase(String.valueOf(sessionFactory.getProperties().get(ENABLED_SETTING)).trim())) {
+			LOG.debug("JFR events of the entity operations disabled by {}", ENABLED_SETTING);
+			return;
+		}
+		EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+		wrap(registry, EventType.PERSIST, PersistenceEventListeners.Persist::new);
+		wrap(registry, EventType.LOAD, PersistenceEventListeners.Load::new);
+		wrap(registry, EventType.MERGE, PersistenceEventListeners.Merge::new);
+		wrap(registry, EventType.DELETE, PersistenceEventListeners.Delete::new);
+		wrap(registry, EventType.FLUSH, PersistenceEventListeners.Flush::new);
+		wrap(registry, EventType.AUTO_FLUSH, PersistenceEventListeners.AutoFlush::new);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void wrap(EventListenerRegistry registry, EventType<T> type, Function<List<T>, T> wrapper) {
+		List<T> listeners = new ArrayList<>();
+		// Not listeners(), deprecated in Hibernate 5.6
+		registry.getEventListenerGroup(type).fireEventOnEachListener(listeners, (listener, list) -> list.add(listener));
+		registry.setListeners(type, wrapper.apply(List.copyOf(listeners)));
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		// the listeners go away with the session factory
+	}
+}
@@ -0,0 +1,39 @@
+package acmecollege.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The execution of one JDBC statement, recorded by {@link acmecollege.logging.SlowQueryLog} hence only on the
+ * connections it wraps.  The duration is the one of the execution, not of reading the rows.
+ */
+@Name("acmecollege.QueryExecution")
+@Label("Query Execution")
+@Category({ "ACME College", "Persistence" })
+@Description("Execution of a JDBC statement, with its origin and the rows read or updated")
+public final class QueryExecutionEvent extends jdk.jfr.Event {
+
+	@Label("Origin")
+	@Description("Named query, JPQL or table, see SlowQueryLog")
+	String origin;
+
+	@Label("SQL")
+	String sql;
+
+	@Label("Rows")
+	@Description("Rows read or updated, -1 when unknown")
+	long rows;
+
+	/**
+	 * @param origin - named query, JPQL or table the statement comes from, null when unknown
+	 * @param sql    - statement, on one line
+	 * @param rows   - rows read or updated, -1 when unknown
+	 */
+	public void set(String origin, String sql, long rows) {
+		this.origin = origin;
+		this.sql = sql;
+		this.rows = rows;
+	}
+}
@@ -0,0 +1,20 @@
+package acmecollege.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One resource-local transaction, from <code>begin()</code> to the end of its commit or rollback
+ */
+@Name("acmecollege.Transaction")
+@Label("Transaction")
+@Category({ "ACME College", "Persistence" })
+@Description("Transaction from begin to completion")
+public final class TransactionEvent extends jdk.jfr.Event {
+
+	@Label("Completion")
+	@Description("commit, or rollback (a flush failing at commit included)")
+	String completion;
+}
@@ -0,0 +1,56 @@
+package acmecollege.jfr;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+
+/**
+ * Records the {@link TransactionEvent} and {@link CommitEvent} of a session, set in persistence.xml as
+ * hibernate.session_factory.session_scoped_interceptor so that each EntityManager has its own instance.  A rollback
+ * has a {@link TransactionEvent}, no {@link CommitEvent}.
+ * <p>
+ * Hibernate tells an interceptor neither the outcome of the commit nor, after the completion, the status of the
+ * transaction:  a commit refused by the database is recorded as a commit, the exception is the one of the
+ * application.
+ */
+public class TransactionEventInterceptor extends EmptyInterceptor {
+	private static final long serialVersionUID = 1L;
+
+	private transient TransactionEvent transaction;
+	private transient CommitEvent commit;
+
+	@Override
+	public void afterTransactionBegin(Transaction tx) {
+		TransactionEvent event = new TransactionEvent();
+		if (event.isEnabled()) {
+			event.begin();
+			transaction = event;
+		}
+	}
+
+	@Override
+	public void beforeTransactionCompletion(Transaction tx) {
+		CommitEvent event = new CommitEvent();
+		if (event.isEnabled()) {
+			event.begin();
+			commit = event;
+		}
+	}
+
+	@Override
+	public void afterTransactionCompletion(Transaction tx) {
+		// beforeTransactionCompletion is only called by a commit, after its flush
+		boolean committed = commit != null;
+		if (committed) {
+			commit.commit();
+			commit = null;
+		}
+		if (transaction != null) {
+			transaction.end();
+			if (transaction.shouldCommit()) {
+				transaction.completion = committed ? "commit" : "rollback";
+				transaction.commit();
+			}
+			transaction = null;
+		}
+	}
+}
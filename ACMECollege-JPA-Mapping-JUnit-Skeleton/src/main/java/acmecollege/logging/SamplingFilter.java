@@ -0,0 +1,176 @@
+package acmecollege.logging;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * Log4j2 filter letting the events of some loggers through during <code>sampleMillis</code> of every
+ * <code>periodMillis</code> only, for example 1 second of SQL (statements and their bind parameters) every minute:
+ * <pre>
+ * &lt;Configuration packages="acmecollege.logging"&gt;
+ *     &lt;SamplingFilter loggers="org.hibernate.SQL,org.hibernate.type.descriptor.sql" sampleMillis="1000"
+ *         periodMillis="60000"/&gt;
+ * </pre>
+ * It must be a context-wide filter (a child of Configuration):  those are also asked by
+ * <code>logger.isDebugEnabled()</code>, so outside of the sample Hibernate does not even format the statement or its
+ * parameters.  The sample is a time window, not a ratio of events, so a statement and its parameters are kept or
+ * dropped together.
+ * <p>
+ * Garbage-free:  the decision is a lookup of the logger name and a clock read.  Events of the other loggers are left
+ * to the levels of the configuration (NEUTRAL), as are the sampled ones.
+ */
+@Plugin(name = "SamplingFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class SamplingFilter extends AbstractFilter {
+
+	private final List<String> loggers;
+
+	private final long sampleMillis;
+
+	private final long periodMillis;
+
+	private final LongSupplier clock;
+
+	SamplingFilter(List<String> loggers, long sampleMillis, long periodMillis, LongSupplier clock) {
+		super(Result.NEUTRAL, Result.DENY);
+		if (sampleMillis < 0 || periodMillis <= 0) {
+			throw new IllegalArgumentException("sampleMillis must be >= 0 and periodMillis > 0");
+		}
+		this.loggers = List.copyOf(loggers);
+		this.sampleMillis = sampleMillis;
+		this.periodMillis = periodMillis;
+		this.clock = clock;
+	}
+
+	/**
+	 * @param loggers      - comma-separated names of the sampled loggers, their child loggers are sampled too
+	 * @param sampleMillis - how long the events are let through, 1000 by default
+	 * @param periodMillis - time between the start of two samples, 60000 by default
+	 * @return A new filter, for the log4j2 configuration
+	 */
+	@PluginFactory
+	public static SamplingFilter createFilter(@PluginAttribute("loggers") String loggers,
+		@PluginAttribute(value = "sampleMillis", defaultLong = 1_000) long sampleMillis,
+		@PluginAttribute(value = "periodMillis", defaultLong = 60_000) long periodMillis) {
+		List<String> names = loggers == null ? List.of()
+			: Arrays.stream(loggers.split(",")).map(String::trim).filter(name -> !name.isEmpty())
+				.collect(Collectors.toList());
+		return new SamplingFilter(names, sampleMillis, periodMillis, System::currentTimeMillis);
+	}
+
+	/**
+	 * @return True if <code>loggerName</code> is one of the sampled loggers or one of their child loggers
+	 */
+	boolean isSampled(String loggerName) {
+		for (int i = 0; i < loggers.size(); i++) {
+			String sampled = loggers.get(i);
+			if (loggerName.startsWith(sampled)
+				&& (loggerName.length() == sampled.length() || loggerName.charAt(sampled.length()) == '.')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Result filter(String loggerName) {
+		if (!isSampled(loggerName)) {
+			return Result.NEUTRAL;
+		}
+		return clock.getAsLong() % periodMillis < sampleMillis ? onMatch : onMismatch;
+	}
+
+	@Override
+	public Result filter(LogEvent event) {
+		return filter(event.getLoggerName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, Message msg, Throwable t) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, Object msg, Throwable t) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object... params) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3, Object p4) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3, Object p4, Object p5) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3, Object p4, Object p5, Object p6) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3, Object p4, Object p5, Object p6, Object p7) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3, Object p4, Object p5, Object p6, Object p7, Object p8) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public Result filter(Logger logger, Level level, Marker marker, String msg, Object p0, Object p1, Object p2,
+		Object p3, Object p4, Object p5, Object p6, Object p7, Object p8, Object p9) {
+		return filter(logger.getName());
+	}
+
+	@Override
+	public String toString() {
+		return "SamplingFilter " + loggers + " " + sampleMillis + " ms every " + periodMillis + " ms";
+	}
+}
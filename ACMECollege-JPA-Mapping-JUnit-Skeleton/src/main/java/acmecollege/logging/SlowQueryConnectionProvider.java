@@ -0,0 +1,39 @@
+package acmecollege.logging;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.hibernate.HibernateException;
+import org.hibernate.hikaricp.internal.HikariCPConnectionProvider;
+
+/**
+ * HikariCP connection provider logging the slow statements with {@link SlowQueryLog}, set in persistence.xml as
+ * hibernate.connection.provider_class.  The threshold is the property {@value #THRESHOLD_SETTING} in milliseconds,
+ * without it (or with a negative value) the connections of the pool are handed out as is.
+ */
+public class SlowQueryConnectionProvider extends HikariCPConnectionProvider {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Persistence Unit property holding the threshold of the slow statements, in milliseconds
+	 */
+	public static final String THRESHOLD_SETTING = "acmecollege.slow_query.threshold_ms";
+
+	private transient SlowQueryLog slowQueryLog;
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public void configure(Map props) throws HibernateException {
+		super.configure(props);
+		Object threshold = props.get(THRESHOLD_SETTING);
+		long thresholdMillis = threshold == null ? -1 : Long.parseLong(threshold.toString().trim());
+		slowQueryLog = thresholdMillis < 0 ? null : new SlowQueryLog(thresholdMillis);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Connection connection = super.getConnection();
+		return slowQueryLog == null ? connection : slowQueryLog.wrap(connection);
+	}
+}
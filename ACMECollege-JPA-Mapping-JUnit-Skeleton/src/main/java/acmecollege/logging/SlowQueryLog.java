@@ -0,0 +1,307 @@
+package acmecollege.logging;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import acmecollege.jfr.QueryExecutionEvent;
+
+/**
+ * Logs the JDBC statements slower than a threshold, with what is needed to reproduce them:  the time, the rows read or
+ * updated, the SQL, its bind parameters and where it comes from.  The origin is the comment Hibernate puts in front
+ * of the SQL with hibernate.use_sql_comments:  the name of a named query (<code>Student.findAll</code>), the JPQL of a
+ * query or the JPQL rendered from a Criteria query.  Entity loads (<code>em.find</code>, lazy loading) have no comment
+ * in Hibernate 5.6, their origin is the table they read, for example <code>table student</code>.
+ * <p>
+ * The connections are wrapped by {@link SlowQueryConnectionProvider}.  Every statement pays for recording its bind
+ * parameters and for one clock read, only the slow (or recorded) ones have their rows counted (through the ResultSet)
+ * and logged.  SlowQueryLogBenchmark (ACMECollege-JPA-Mapping-JUnit-Benchmarks) measures that cost.  A JDBC batch is
+ * logged with the bind parameters of each of its rows, in the order they were added.  A query is logged when its
+ * ResultSet or statement is closed, with the time of the execution (not of reading the rows).
+ * <p>
+ * The records go to the logger {@value #LOGGER_NAME} at INFO level, which log4j2.xml sends to a rolling file of its
+ * own.
+ * <p>
+ * While a JFR recording enables it, every statement (slow or not) is also recorded as a {@link QueryExecutionEvent},
+ * with its rows.
+ */
+public final class SlowQueryLog {
+
+	/**
+	 * Name of the logger of the slow statements
+	 */
+	public static final String LOGGER_NAME = "acmecollege.slowquery";
+
+	private static final Logger LOG = LogManager.getLogger(LOGGER_NAME);
+
+	/**
+	 * Longest bind parameter logged, longer ones (text, binary) are cut
+	 */
+	static final int MAX_PARAMETER_LENGTH = 100;
+
+	private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*(.*?)\\*/\\s*(.*)$", Pattern.DOTALL);
+
+	private static final Pattern FIRST_TABLE = Pattern.compile("\\b(?:from|into|update)\\s+([\\w.`\"]+)",
+		Pattern.CASE_INSENSITIVE);
+
+	private final long thresholdNanos;
+
+	/**
+	 * @param thresholdMillis - statements taking at least this long are logged, 0 logs all of them
+	 */
+	public SlowQueryLog(long thresholdMillis) {
+		if (thresholdMillis < 0) {
+			throw new IllegalArgumentException("Threshold cannot be negative: " + thresholdMillis);
+		}
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	/**
+	 * @return A connection recording the statements of <code>connection</code>, closing it closes
+	 *         <code>connection</code>
+	 */
+	public Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+			new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+	}
+
+	/**
+	 * @return <code>sql</code> split in origin and statement, both on one line.  The origin is the leading comment,
+	 *         else the first table of the statement, else null.
+	 */
+	static String[] originAndStatement(String sql) {
+		Matcher matcher = LEADING_COMMENT.matcher(sql);
+		if (matcher.matches()) {
+			return new String[] { oneLine(matcher.group(1)), oneLine(matcher.group(2)) };
+		}
+		matcher = FIRST_TABLE.matcher(sql);
+		return new String[] { matcher.find() ? "table " + matcher.group(1) : null, oneLine(sql) };
+	}
+
+	private static String oneLine(String text) {
+		return text.replaceAll("\\s+", " ").trim();
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class ConnectionHandler implements InvocationHandler {
+		private final Connection connection;
+
+		private ConnectionHandler(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = SlowQueryLog.invoke(connection, method, args);
+			if (result instanceof Statement) {
+				String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+				return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+					new Class<?>[] { method.getReturnType() }, new StatementHandler((Statement) result, sql));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Statement, PreparedStatement or CallableStatement
+	 */
+	private class StatementHandler implements InvocationHandler {
+		private final Statement statement;
+		private String sql;
+		private final Map<Integer, Object> parameters = new TreeMap<>();
+		/**
+		 * Bind parameters of the rows added to the batch, null while there is no batch
+		 */
+		private List<Map<Integer, Object>> batch;
+		private Execution pending;
+
+		private StatementHandler(Statement statement, String sql) {
+			this.statement = statement;
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+				return SlowQueryLog.invoke(statement, method, args);
+			}
+			if (!name.startsWith("execute")) {
+				if (name.equals("clearParameters")) {
+					parameters.clear();
+				} else if (name.equals("addBatch") && args == null) {
+					if (batch == null) {
+						batch = new ArrayList<>();
+					}
+					batch.add(new TreeMap<>(parameters));
+				} else if (name.equals("clearBatch")) {
+					batch = null;
+				} else if (name.equals("close")) {
+					logPending();
+				}
+				return SlowQueryLog.invoke(statement, method, args);
+			}
+
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				sql = (String) args[0];
+			}
+			logPending();
+			// The driver empties the batch when it is executed
+			List<Map<Integer, Object>> executedBatch = batch;
+			batch = null;
+			QueryExecutionEvent event = new QueryExecutionEvent();
+			event.begin();
+			long start = System.nanoTime();
+			Object result = SlowQueryLog.invoke(statement, method, args);
+			long nanos = System.nanoTime() - start;
+			event.end();
+			boolean slow = nanos >= thresholdNanos;
+			if (!slow && !event.shouldCommit()) {
+				return result;
+			}
+			Execution execution = new Execution(nanos, slow, event.shouldCommit() ? event : null, executedBatch);
+			if (result instanceof ResultSet) {
+				pending = execution;
+				return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+					new ResultSetHandler((ResultSet) result, execution));
+			}
+			if (result instanceof int[]) {
+				for (int rows : (int[]) result) {
+					execution.rows += Math.max(rows, 0);
+				}
+			} else if (result instanceof Number) {
+				execution.rows = ((Number) result).longValue();
+			} else {
+				// execute():  true for a ResultSet, not read through this proxy
+				execution.rows = -1;
+			}
+			log(execution);
+			return result;
+		}
+
+		private void logPending() {
+			if (pending != null) {
+				log(pending);
+				pending = null;
+			}
+		}
+
+		/**
+		 * Logs <code>execution</code> if slow and commits its JFR event, once
+		 */
+		private void log(Execution execution) {
+			if (execution.logged) {
+				return;
+			}
+			execution.logged = true;
+			String[] originAndStatement = originAndStatement(sql == null ? "" : sql);
+			if (execution.event != null) {
+				execution.event.set(originAndStatement[0], originAndStatement[1], execution.rows);
+				execution.event.commit();
+			}
+			if (!execution.slow) {
+				return;
+			}
+			LOG.info("{} ms, {} rows, origin: {}, SQL: {}, parameters: {}",
+				String.format("%.1f", execution.nanos / 1_000_000d), execution.rows < 0 ? "?" : execution.rows,
+				originAndStatement[0] == null ? "unknown" : originAndStatement[0],
+				originAndStatement[1], parameters(execution.batch));
+		}
+
+		/**
+		 * @param rows - bind parameters of the rows of a batch, null for a single execution
+		 * @return <code>[1=a, 2=b]</code>, or <code>[1=a, 2=b], [1=c, 2=d]</code> for a batch of two rows
+		 */
+		private String parameters(List<Map<Integer, Object>> rows) {
+			if (rows == null) {
+				return parameters(parameters);
+			}
+			StringBuilder text = new StringBuilder();
+			for (Map<Integer, Object> row : rows) {
+				if (text.length() > 0) {
+					text.append(", ");
+				}
+				text.append(parameters(row));
+			}
+			return text.toString();
+		}
+
+		private String parameters(Map<Integer, Object> row) {
+			StringBuilder text = new StringBuilder("[");
+			for (Map.Entry<Integer, Object> parameter : row.entrySet()) {
+				if (text.length() > 1) {
+					text.append(", ");
+				}
+				String value = String.valueOf(parameter.getValue());
+				if (value.length() > MAX_PARAMETER_LENGTH) {
+					value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+				}
+				text.append(parameter.getKey()).append('=').append(value);
+			}
+			return text.append(']').toString();
+		}
+
+		private class ResultSetHandler implements InvocationHandler {
+			private final ResultSet resultSet;
+			private final Execution execution;
+
+			private ResultSetHandler(ResultSet resultSet, Execution execution) {
+				this.resultSet = resultSet;
+				this.execution = execution;
+			}
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Object result = SlowQueryLog.invoke(resultSet, method, args);
+				if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+					execution.rows++;
+				} else if (method.getName().equals("close")) {
+					log(execution);
+				}
+				return result;
+			}
+		}
+	}
+
+	private static class Execution {
+		private final long nanos;
+		private final boolean slow;
+		private final QueryExecutionEvent event;
+		private final List<Map<Integer, Object>> batch;
+		private long rows;
+		private boolean logged;
+
+		/**
+		 * @param event - event to commit once the rows are known, null when no recording wants it
+		 * @param batch - bind parameters of the rows of the batch executed, null if it was not a batch
+		 */
+		private Execution(long nanos, boolean slow, QueryExecutionEvent event, List<Map<Integer, Object>> batch) {
+			this.nanos = nanos;
+			this.slow = slow;
+			this.event = event;
+			this.batch = batch;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package acmecollege.metrics;
+
+import java.util.Map;
+
+/**
+ * Where {@link PersistenceMetrics} exports its values, to plug in the metrics library of the application.  For
+ * example with Micrometer, record each value in a gauge of the same name and tags.
+ * <p>
+ * Counters (names ending in <code>.count</code>) are totals since the statistics were started or cleared, times are
+ * in milliseconds and ratios between 0 and 1.  Called by one thread at a time.
+ */
+@FunctionalInterface
+public interface MetricsRegistry {
+
+	/**
+	 * Registry dropping every value, when only the log summary is wanted
+	 */
+	MetricsRegistry NONE = (name, tags, value) -> {
+	};
+
+	/**
+	 * @param name  - name of the metric, for example hibernate.entity.load.count
+	 * @param tags  - dimensions of the metric, for example entity=acmecollege.entity.Student, empty for totals
+	 * @param value - current value
+	 */
+	void record(String name, Map<String, String> tags, double value);
+}
@@ -0,0 +1,202 @@
+package acmecollege.metrics;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * What the persistence layer does, from Hibernate's statistics (turned on by the constructor, whatever
+ * hibernate.generate_statistics says in persistence.xml):
+ * <ul>
+ * <li>per entity:  loads, fetches, inserts, updates and deletes</li>
+ * <li>per JPQL/HQL query:  executions, rows and min/max/mean time.  Hibernate keeps the statistics of the 5000 last
+ * used queries (hibernate.statistics.query_max_size)</li>
+ * <li>per second-level cache region:  hits, misses, puts and hit ratio</li>
+ * <li>totals:  sessions, transactions, flushes, JDBC statements and connections</li>
+ * </ul>
+ * The values are exported to a {@link MetricsRegistry} and summarized in the log (INFO, acmecollege.metrics), on
+ * demand or every period with {@link #start(Duration)}.
+ * <p>
+ * The collection costs a few atomic increments per operation, see acmecollege.benchmark.StatisticsOverheadBenchmark,
+ * and can be left on in production.
+ */
+public class PersistenceMetrics implements AutoCloseable {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Number of queries in the log summary, the ones with the highest total time
+	 */
+	static final int QUERIES_LOGGED = 10;
+
+	private final Statistics statistics;
+
+	private final MetricsRegistry registry;
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Turn the statistics of <code>emf</code> on.
+	 *
+	 * @param emf      - EntityManagerFactory of acmecollege-PU
+	 * @param registry - where {@link #export()} records the values
+	 */
+	public PersistenceMetrics(EntityManagerFactory emf, MetricsRegistry registry) {
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		this.registry = registry;
+		statistics.setStatisticsEnabled(true);
+	}
+
+	/**
+	 * Export and log the metrics every <code>period</code>, on a daemon thread, until {@link #close()}.
+	 *
+	 * @param period - time between two exports
+	 * @return This, for chaining with the constructor
+	 */
+	public synchronized PersistenceMetrics start(Duration period) {
+		if (scheduler != null) {
+			throw new IllegalStateException("Metrics already started");
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "acmecollege-metrics");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleAtFixedRate(() -> {
+			// An exception would cancel the next runs
+			try {
+				export();
+				log();
+			} catch (RuntimeException e) {
+				LOG.warn("Metrics export failed", e);
+			}
+		}, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+		return this;
+	}
+
+	/**
+	 * Stop the periodic export, the statistics are still collected.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Record the current values in the {@link MetricsRegistry}.
+	 */
+	public synchronized void export() {
+		record("hibernate.session.open.count", statistics.getSessionOpenCount());
+		record("hibernate.session.close.count", statistics.getSessionCloseCount());
+		record("hibernate.transaction.count", statistics.getTransactionCount());
+		record("hibernate.transaction.successful.count", statistics.getSuccessfulTransactionCount());
+		record("hibernate.flush.count", statistics.getFlushCount());
+		record("hibernate.connection.count", statistics.getConnectCount());
+		record("hibernate.statement.prepared.count", statistics.getPrepareStatementCount());
+		record("hibernate.optimistic.failure.count", statistics.getOptimisticFailureCount());
+
+		for (String entity : statistics.getEntityNames()) {
+			EntityStatistics entityStatistics = statistics.getEntityStatistics(entity);
+			Map<String, String> tags = Map.of("entity", entity);
+			registry.record("hibernate.entity.load.count", tags, entityStatistics.getLoadCount());
+			registry.record("hibernate.entity.fetch.count", tags, entityStatistics.getFetchCount());
+			registry.record("hibernate.entity.insert.count", tags, entityStatistics.getInsertCount());
+			registry.record("hibernate.entity.update.count", tags, entityStatistics.getUpdateCount());
+			registry.record("hibernate.entity.delete.count", tags, entityStatistics.getDeleteCount());
+		}
+
+		for (String query : statistics.getQueries()) {
+			QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+			Map<String, String> tags = Map.of("query", query);
+			registry.record("hibernate.query.execution.count", tags, queryStatistics.getExecutionCount());
+			registry.record("hibernate.query.row.count", tags, queryStatistics.getExecutionRowCount());
+			registry.record("hibernate.query.time.min", tags, queryStatistics.getExecutionMinTime());
+			registry.record("hibernate.query.time.max", tags, queryStatistics.getExecutionMaxTime());
+			registry.record("hibernate.query.time.mean", tags, queryStatistics.getExecutionAvgTimeAsDouble());
+		}
+
+		for (String region : statistics.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+			Map<String, String> tags = Map.of("region", region);
+			registry.record("hibernate.cache.hit.count", tags, regionStatistics.getHitCount());
+			registry.record("hibernate.cache.miss.count", tags, regionStatistics.getMissCount());
+			registry.record("hibernate.cache.put.count", tags, regionStatistics.getPutCount());
+			registry.record("hibernate.cache.hit.ratio", tags,
+				hitRatio(regionStatistics.getHitCount(), regionStatistics.getMissCount()));
+		}
+	}
+
+	/**
+	 * Log a summary at INFO level:  the totals, the entities used since the start, the {@value #QUERIES_LOGGED}
+	 * queries with the highest total time and the second-level cache, in total and per region.
+	 */
+	public synchronized void log() {
+		LOG.info("Sessions {}, transactions {} ({} successful), flushes {}, connections {}, statements {}",
+			statistics.getSessionOpenCount(), statistics.getTransactionCount(),
+			statistics.getSuccessfulTransactionCount(), statistics.getFlushCount(), statistics.getConnectCount(),
+			statistics.getPrepareStatementCount());
+		for (String entity : statistics.getEntityNames()) {
+			EntityStatistics entityStatistics = statistics.getEntityStatistics(entity);
+			if (entityStatistics.getLoadCount() + entityStatistics.getFetchCount() + entityStatistics.getInsertCount()
+				+ entityStatistics.getUpdateCount() + entityStatistics.getDeleteCount() > 0) {
+				LOG.info("Entity {}: loads {}, fetches {}, inserts {}, updates {}, deletes {}", entity,
+					entityStatistics.getLoadCount(), entityStatistics.getFetchCount(),
+					entityStatistics.getInsertCount(), entityStatistics.getUpdateCount(),
+					entityStatistics.getDeleteCount());
+			}
+		}
+		Arrays.stream(statistics.getQueries())
+			.sorted(Comparator.comparingLong(
+				(String query) -> statistics.getQueryStatistics(query).getExecutionTotalTime()).reversed())
+			.limit(QUERIES_LOGGED)
+			.forEach(query -> {
+				QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+				LOG.info("Query executed {} times, {} rows, min/mean/max {}/{}/{} ms: {}",
+					queryStatistics.getExecutionCount(), queryStatistics.getExecutionRowCount(),
+					queryStatistics.getExecutionMinTime(),
+					String.format("%.1f", queryStatistics.getExecutionAvgTimeAsDouble()),
+					queryStatistics.getExecutionMaxTime(), query);
+			});
+		if (statistics.getSecondLevelCacheRegionNames().length > 0) {
+			LOG.info("L2 cache: hits {}, misses {}, puts {}, hit ratio {}%", statistics.getSecondLevelCacheHitCount(),
+				statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(),
+				String.format("%.1f", 100 * hitRatio(statistics.getSecondLevelCacheHitCount(),
+					statistics.getSecondLevelCacheMissCount())));
+		}
+		for (String region : statistics.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+			LOG.info("L2 region {}: hits {}, misses {}, puts {}, hit ratio {}%", region, regionStatistics.getHitCount(),
+				regionStatistics.getMissCount(), regionStatistics.getPutCount(),
+				String.format("%.1f", 100 * hitRatio(regionStatistics.getHitCount(), regionStatistics.getMissCount())));
+		}
+	}
+
+	/**
+	 * @return Fraction (0 to 1) of cache lookups that were hits, 0 if there were no lookups
+	 */
+	public static double hitRatio(long hits, long misses) {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	private void record(String name, long value) {
+		registry.record(name, Map.of(), value);
+	}
+}
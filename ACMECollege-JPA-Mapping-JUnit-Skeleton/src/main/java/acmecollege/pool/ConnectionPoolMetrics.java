@@ -0,0 +1,79 @@
+package acmecollege.pool;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Gauges of the HikariCP connection pool configured in persistence.xml (hibernate.hikari.* properties):
+ * <ul>
+ * <li>active - connections currently borrowed by an EntityManager</li>
+ * <li>idle - connections in the pool, ready to be borrowed</li>
+ * <li>pending - threads waiting for a connection because all of them are active</li>
+ * </ul>
+ * The same values are available over JMX when hibernate.hikari.registerMbeans is true.
+ */
+public class ConnectionPoolMetrics {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private ConnectionPoolMetrics() {
+	}
+
+	/**
+	 * @param emf - EntityManagerFactory of acmecollege-PU
+	 * @return True if the connections of <code>emf</code> come from HikariCP, false if another
+	 *         hibernate.connection.provider_class is used (for example Hibernate's built-in pool)
+	 */
+	public static boolean isPooled(EntityManagerFactory emf) {
+		return connectionProvider(emf).isUnwrappableAs(HikariDataSource.class);
+	}
+
+	/**
+	 * @param emf - EntityManagerFactory of acmecollege-PU
+	 * @return The HikariCP DataSource, gives access to the pool settings
+	 * @throws IllegalStateException if the connections do not come from HikariCP
+	 */
+	public static HikariDataSource dataSource(EntityManagerFactory emf) {
+		if (!isPooled(emf)) {
+			throw new IllegalStateException("Connections are not pooled by HikariCP, check hibernate.connection.provider_class");
+		}
+		return connectionProvider(emf).unwrap(HikariDataSource.class);
+	}
+
+	/**
+	 * @param emf - EntityManagerFactory of acmecollege-PU
+	 * @return Live view of the pool gauges, each call to a getter reads the current value
+	 * @throws IllegalStateException if the connections do not come from HikariCP
+	 */
+	public static HikariPoolMXBean gauges(EntityManagerFactory emf) {
+		return dataSource(emf).getHikariPoolMXBean();
+	}
+
+	/**
+	 * Log the pool gauges at INFO level.
+	 *
+	 * @param emf - EntityManagerFactory of acmecollege-PU
+	 */
+	public static void log(EntityManagerFactory emf) {
+		if (!isPooled(emf)) {
+			LOG.warn("Connections are not pooled by HikariCP, no pool metrics");
+			return;
+		}
+		HikariDataSource dataSource = dataSource(emf);
+		HikariPoolMXBean gauges = dataSource.getHikariPoolMXBean();
+		LOG.info("Pool {}: active {}, idle {}, pending {}, total {} (min idle {}, max {})", dataSource.getPoolName(),
+			gauges.getActiveConnections(), gauges.getIdleConnections(), gauges.getThreadsAwaitingConnection(),
+			gauges.getTotalConnections(), dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+	}
+
+	private static ConnectionProvider connectionProvider(EntityManagerFactory emf) {
+		return emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(ConnectionProvider.class);
+	}
+}
@@ -0,0 +1,87 @@
+package acmecollege.pool;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import acmecollege.entity.PojoBase;
+
+/**
+ * JDBC tuning profiles for acmecollege-PU, chosen with the system property {@value #SYSTEM_PROPERTY}
+ * (<code>-Dacmecollege.profile=throughput</code>).  The properties of the profile override the ones in
+ * persistence.xml, they are applied by {@link acmecollege.ACMECollegeDriver}, the importer and the JUnit tests.
+ * <p>
+ * The MySQL Connector/J settings are passed to the driver by HikariCP (hibernate.hikari.dataSource.*), they have no
+ * effect if another database is used.
+ */
+public enum ConnectionProfile {
+
+	/**
+	 * persistence.xml as is
+	 */
+	DEFAULT(Map.of()),
+
+	/**
+	 * Fewer round trips and less parsing for write-heavy and bulk-read work:
+	 * <ul>
+	 * <li>prepared statements are cached by the driver (cachePrepStmts) and prepared on the server once per
+	 * connection (useServerPrepStmts)</li>
+	 * <li>a JDBC batch of INSERTs is sent as one multi-row INSERT (rewriteBatchedStatements).  MySQL then no longer
+	 * reports the row count of each statement in the batch, Hibernate accepts that</li>
+	 * <li>JDBC batching and statement ordering, at the same size as the id allocation of {@link PojoBase}</li>
+	 * </ul>
+	 * No hibernate.jdbc.fetch_size:  the URL in persistence.xml has useCursorFetch=true, so with a fetch size every
+	 * query would read its rows through a server-side cursor, one more round trip per fetch.  Only the streamed query
+	 * of {@link acmecollege.query.StreamingReader} sets one.
+	 */
+	THROUGHPUT(Map.ofEntries(
+		Map.entry("hibernate.hikari.dataSource.cachePrepStmts", "true"),
+		Map.entry("hibernate.hikari.dataSource.prepStmtCacheSize", "250"),
+		Map.entry("hibernate.hikari.dataSource.prepStmtCacheSqlLimit", "2048"),
+		Map.entry("hibernate.hikari.dataSource.useServerPrepStmts", "true"),
+		Map.entry("hibernate.hikari.dataSource.rewriteBatchedStatements", "true"),
+		Map.entry("hibernate.hikari.dataSource.cacheResultSetMetadata", "true"),
+		Map.entry("hibernate.hikari.dataSource.cacheServerConfiguration", "true"),
+		Map.entry("hibernate.hikari.dataSource.elideSetAutoCommits", "true"),
+		Map.entry("hibernate.hikari.dataSource.maintainTimeStats", "false"),
+		Map.entry("hibernate.jdbc.batch_size", String.valueOf(PojoBase.ID_ALLOCATION_SIZE)),
+		Map.entry("hibernate.order_inserts", "true"),
+		Map.entry("hibernate.order_updates", "true")));
+
+	/**
+	 * Name of the system property holding the profile name, not case sensitive
+	 */
+	public static final String SYSTEM_PROPERTY = "acmecollege.profile";
+
+	private final Map<String, Object> properties;
+
+	private ConnectionProfile(Map<String, Object> properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * @return Unmodifiable map of the properties that override persistence.xml
+	 */
+	public Map<String, Object> properties() {
+		return properties;
+	}
+
+	/**
+	 * @param overrides - properties that take precedence over the profile, like the ones of a test or benchmark
+	 * @return New map holding the profile properties and <code>overrides</code>
+	 */
+	public Map<String, Object> properties(Map<String, ?> overrides) {
+		Map<String, Object> merged = new HashMap<>(properties);
+		merged.putAll(overrides);
+		return merged;
+	}
+
+	/**
+	 * @return Profile named by the system property {@value #SYSTEM_PROPERTY}, {@link #DEFAULT} if it is not set
+	 * @throws IllegalArgumentException if there is no profile with that name
+	 */
+	public static ConnectionProfile selected() {
+		String name = System.getProperty(SYSTEM_PROPERTY, DEFAULT.name());
+		return valueOf(name.trim().toUpperCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,79 @@
+package acmecollege.query;
+
+import java.util.Map;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.NaturalIdLoadAccess;
+import org.hibernate.Session;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.Course_;
+import acmecollege.entity.StudentClub;
+
+/**
+ * Finds entities by their natural id (the attributes annotated @NaturalId) instead of a JPQL query on them.  The
+ * natural id is resolved to the id by the persistence context or the natural id region of the second-level cache
+ * (@NaturalIdCache), the entity is then loaded by id from the persistence context or its own region.  When the natural
+ * id is not cached, the entity is loaded in one SELECT of the whole row by its natural id, which fills both regions.
+ * Once both regions hold it, a lookup runs no SQL at all, even in a new EntityManager.
+ * <p>
+ * The natural ids are mutable:  before resolving one, Hibernate checks the managed entities of its class for a changed
+ * natural id, so a lookup sees the changes not yet flushed.  A rename replaces the old key of the natural id region
+ * when it is committed, a bulk UPDATE (JPQL) empties the region.  Changes made outside of Hibernate are only seen once
+ * the entries expire (ehcache.xml).
+ */
+public class NaturalIdReader {
+
+	private final EntityManager em;
+
+	public NaturalIdReader(EntityManager em) {
+		this.em = Objects.requireNonNull(em, "EntityManager cannot be null");
+	}
+
+	/**
+	 * @param <T>         - entity with a natural id
+	 * @param entityClass - like Course.class
+	 * @param naturalId   - value of every attribute of the natural id, by attribute name
+	 * @return The managed entity, null if there is none
+	 */
+	public <T> T findByNaturalId(Class<T> entityClass, Map<String, ?> naturalId) {
+		if (naturalId.isEmpty()) {
+			throw new IllegalArgumentException("Natural id of " + entityClass.getSimpleName() + " cannot be empty");
+		}
+		NaturalIdLoadAccess<T> access = em.unwrap(Session.class).byNaturalId(entityClass);
+		naturalId.forEach(access::using);
+		return access.load();
+	}
+
+	/**
+	 * @param <T>         - entity with a natural id of one attribute
+	 * @param entityClass - like StudentClub.class
+	 * @param naturalId   - value of the attribute
+	 * @return The managed entity, null if there is none
+	 */
+	public <T> T findByNaturalId(Class<T> entityClass, Object naturalId) {
+		Objects.requireNonNull(naturalId, "Natural id cannot be null");
+		return em.unwrap(Session.class).bySimpleNaturalId(entityClass).load(naturalId);
+	}
+
+	/**
+	 * @param courseCode - like CST8277
+	 * @param year       - like 2022
+	 * @param semester   - like AUTUMN
+	 * @return The course given that term, null if there is none
+	 */
+	public Course findCourse(String courseCode, int year, String semester) {
+		return findByNaturalId(Course.class, Map.of(Course_.courseCode.getName(), courseCode,
+			Course_.year.getName(), year, Course_.semester.getName(), semester));
+	}
+
+	/**
+	 * @param name - name of the club
+	 * @return The academic or non-academic club, null if there is none
+	 */
+	public StudentClub findClub(String name) {
+		return findByNaturalId(StudentClub.class, name);
+	}
+}
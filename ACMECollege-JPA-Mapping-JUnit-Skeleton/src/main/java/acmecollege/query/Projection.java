@@ -0,0 +1,29 @@
+package acmecollege.query;
+
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+/**
+ * Columns of a read-only view, read by {@link ProjectionReader} straight into <code>R</code> (usually a record) with a
+ * constructor expression:  <code>SELECT NEW R(...) FROM T ...</code>.
+ *
+ * @param <T> - entity the query starts from
+ * @param <R> - type of the rows, with a public constructor taking the columns in order (a local or private record
+ *            will not do)
+ */
+@FunctionalInterface
+public interface Projection<T, R> {
+
+	/**
+	 * Adds the joins, WHERE and ORDER BY of the view to <code>query</code>, its SELECT is left to
+	 * {@link ProjectionReader}.
+	 *
+	 * @return The arguments of the constructor of <code>R</code>, in order, built from the metamodel (for example
+	 *         <code>root.get(Student_.lastName)</code>)
+	 */
+	List<Selection<?>> columns(CriteriaBuilder builder, CriteriaQuery<R> query, Root<T> root);
+}
@@ -0,0 +1,112 @@
+package acmecollege.query;
+
+import java.util.List;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.CourseRegistration_;
+import acmecollege.entity.Course_;
+import acmecollege.entity.PojoBase_;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Professor_;
+import acmecollege.entity.Student;
+import acmecollege.entity.Student_;
+
+/**
+ * Reads the list screens as immutable rows instead of entities:  only the columns of the view are selected (the
+ * associations are plain joins, nothing is fetched) and the rows are never managed, so there is no snapshot for dirty
+ * checking, no entry in the persistence context and nothing to flush.  Use entities to modify data, rows to show it.
+ * <p>
+ * The views are {@link Projection}s over the Criteria metamodel ({@link Student_}, {@link CourseRegistration_},
+ * {@link Course_}, ...), so a renamed attribute breaks the build instead of the query.
+ */
+public class ProjectionReader {
+
+	/**
+	 * All students, by last name then first name
+	 */
+	public static final Projection<Student, StudentName> STUDENT_NAMES = (builder, query, student) -> {
+		query.orderBy(builder.asc(student.get(Student_.lastName)), builder.asc(student.get(Student_.firstName)));
+		return List.of(student.get(PojoBase_.id), student.get(Student_.firstName), student.get(Student_.lastName));
+	};
+
+	/**
+	 * All registrations with their student, course and professor (if any), by student last name then course code
+	 */
+	public static final Projection<CourseRegistration, RegistrationRow> REGISTRATIONS =
+		(builder, query, registration) -> registrations(builder, query, registration, null);
+
+	private final EntityManager em;
+
+	public ProjectionReader(EntityManager em) {
+		this.em = Objects.requireNonNull(em, "EntityManager cannot be null");
+	}
+
+	/**
+	 * @param <T>        - entity the query starts from
+	 * @param <R>        - type of the rows
+	 * @param from       - entity class, like CourseRegistration.class
+	 * @param into       - class of the rows, with a constructor taking the columns of <code>projection</code>
+	 * @param projection - columns, joins, WHERE and ORDER BY of the view
+	 * @return The rows of the view, not managed
+	 */
+	public <T, R> List<R> list(Class<T> from, Class<R> into, Projection<T, R> projection) {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<R> query = builder.createQuery(into);
+		Root<T> root = query.from(from);
+		List<Selection<?>> columns = projection.columns(builder, query, root);
+		query.select(builder.construct(into, columns.toArray(new Selection<?>[0])));
+		return em.createQuery(query).getResultList();
+	}
+
+	/**
+	 * @return {@link #STUDENT_NAMES}
+	 */
+	public List<StudentName> studentNames() {
+		return list(Student.class, StudentName.class, STUDENT_NAMES);
+	}
+
+	/**
+	 * @return {@link #REGISTRATIONS}
+	 */
+	public List<RegistrationRow> registrations() {
+		return list(CourseRegistration.class, RegistrationRow.class, REGISTRATIONS);
+	}
+
+	/**
+	 * @param courseCode - code of the course, like CST8277
+	 * @return {@link #REGISTRATIONS} of the course, all its sections
+	 */
+	public List<RegistrationRow> registrationsOfCourse(String courseCode) {
+		Objects.requireNonNull(courseCode, "Course code cannot be null");
+		return list(CourseRegistration.class, RegistrationRow.class,
+			(builder, query, registration) -> registrations(builder, query, registration, courseCode));
+	}
+
+	/**
+	 * @param courseCode - only the registrations of this course, null for all
+	 */
+	private static List<Selection<?>> registrations(CriteriaBuilder builder, CriteriaQuery<RegistrationRow> query,
+		Root<CourseRegistration> registration, String courseCode) {
+		Join<CourseRegistration, Student> student = registration.join(CourseRegistration_.student);
+		Join<CourseRegistration, Course> course = registration.join(CourseRegistration_.course);
+		Join<CourseRegistration, Professor> professor = registration.join(CourseRegistration_.professor,
+			JoinType.LEFT);
+		if (courseCode != null) {
+			query.where(builder.equal(course.get(Course_.courseCode), courseCode));
+		}
+		query.orderBy(builder.asc(student.get(Student_.lastName)), builder.asc(course.get(Course_.courseCode)));
+		return List.of(student.get(PojoBase_.id), student.get(Student_.firstName), student.get(Student_.lastName),
+			course.get(Course_.courseCode), registration.get(CourseRegistration_.letterGrade),
+			professor.get(Professor_.lastName));
+	}
+}
@@ -0,0 +1,185 @@
+package acmecollege.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+
+/**
+ * The generic queries of the helpers (all rows, count, by attribute, delete all) of an entity class, each built once
+ * instead of on every call.  The first call builds the Criteria query and keeps the JPQL Hibernate renders from it;  the
+ * next calls create the query from that JPQL, which Hibernate finds in its query plan cache (keyed by the JPQL), and
+ * only bind the parameter.  The Criteria tree is neither built nor rendered again, and the query is not translated to
+ * SQL again.
+ * <p>
+ * The JPQL does not depend on the {@link EntityManager}, templates can be shared by all EntityManagers of a Persistence
+ * Unit (and by its tests, which build their own factories).  At most {@link #getMaxSize()} templates are kept, the
+ * least recently used one is dropped first.  Thread-safe.
+ */
+public class QueryTemplates {
+
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	/**
+	 * Name of the parameter of the queries by attribute
+	 */
+	public static final String VALUE_PARAMETER = "value";
+
+	private enum Kind {
+		ALL, COUNT, WITH_ATTRIBUTE, COUNT_WITH_ATTRIBUTE, DELETE_ALL
+	}
+
+	/**
+	 * @param attribute - name of the attribute compared to {@link QueryTemplates#VALUE_PARAMETER}, null for none
+	 */
+	private record Template(Kind kind, Class<?> entityClass, String attribute) {
+	}
+
+	private final int maxSize;
+
+	private final Map<Template, String> templates;
+
+	private long compilations;
+
+	public QueryTemplates() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param maxSize - most templates kept
+	 */
+	public QueryTemplates(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be at least 1");
+		}
+		this.maxSize = maxSize;
+		this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Template, String> eldest) {
+				return size() > QueryTemplates.this.maxSize;
+			}
+		};
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return Number of templates kept
+	 */
+	public synchronized int size() {
+		return templates.size();
+	}
+
+	/**
+	 * @return Number of Criteria queries built so far, one per template unless dropped and built again
+	 */
+	public synchronized long getCompilations() {
+		return compilations;
+	}
+
+	/**
+	 * @param entityClass - like Student.class
+	 * @return <code>SELECT e FROM Entity e</code>
+	 */
+	public <T> TypedQuery<T> all(EntityManager em, Class<T> entityClass) {
+		String jpql = jpql(em, new Template(Kind.ALL, entityClass, null), builder -> {
+			CriteriaQuery<T> query = builder.createQuery(entityClass);
+			query.select(query.from(entityClass));
+			return em.createQuery(query);
+		});
+		return em.createQuery(jpql, entityClass);
+	}
+
+	/**
+	 * @param entityClass - like Student.class
+	 * @return <code>SELECT COUNT(e) FROM Entity e</code>
+	 */
+	public <T> TypedQuery<Long> count(EntityManager em, Class<T> entityClass) {
+		String jpql = jpql(em, new Template(Kind.COUNT, entityClass, null), builder -> {
+			CriteriaQuery<Long> query = builder.createQuery(Long.class);
+			query.select(builder.count(query.from(entityClass)));
+			return em.createQuery(query);
+		});
+		return em.createQuery(jpql, Long.class);
+	}
+
+	/**
+	 * @param entityClass - like Student.class
+	 * @param attribute   - like PojoBase_.id, or CourseRegistration_.id for an embedded id
+	 * @param value       - value of <code>attribute</code>
+	 * @return <code>SELECT e FROM Entity e WHERE e.attribute = :value</code>, bound to <code>value</code>
+	 */
+	public <T, V> TypedQuery<T> withAttribute(EntityManager em, Class<T> entityClass,
+		SingularAttribute<? super T, V> attribute, V value) {
+		String jpql = jpql(em, new Template(Kind.WITH_ATTRIBUTE, entityClass, attribute.getName()), builder -> {
+			CriteriaQuery<T> query = builder.createQuery(entityClass);
+			Root<T> root = query.from(entityClass);
+			query.select(root);
+			query.where(builder.equal(root.get(attribute), builder.parameter(attribute.getJavaType(), VALUE_PARAMETER)));
+			return em.createQuery(query);
+		});
+		return em.createQuery(jpql, entityClass).setParameter(VALUE_PARAMETER, value);
+	}
+
+	/**
+	 * @param entityClass - like Student.class
+	 * @param attribute   - like PojoBase_.id, or CourseRegistration_.id for an embedded id
+	 * @param value       - value of <code>attribute</code>
+	 * @return <code>SELECT COUNT(e) FROM Entity e WHERE e.attribute = :value</code>, bound to <code>value</code>
+	 */
+	public <T, V> TypedQuery<Long> countWithAttribute(EntityManager em, Class<T> entityClass,
+		SingularAttribute<? super T, V> attribute, V value) {
+		String jpql = jpql(em, new Template(Kind.COUNT_WITH_ATTRIBUTE, entityClass, attribute.getName()), builder -> {
+			CriteriaQuery<Long> query = builder.createQuery(Long.class);
+			Root<T> root = query.from(entityClass);
+			query.select(builder.count(root));
+			query.where(builder.equal(root.get(attribute), builder.parameter(attribute.getJavaType(), VALUE_PARAMETER)));
+			return em.createQuery(query);
+		});
+		return em.createQuery(jpql, Long.class).setParameter(VALUE_PARAMETER, value);
+	}
+
+	/**
+	 * @param entityClass - like Student.class
+	 * @return <code>DELETE FROM Entity e</code>, to run in a transaction with {@link Query#executeUpdate()}
+	 */
+	public Query deleteAll(EntityManager em, Class<?> entityClass) {
+		String jpql = jpql(em, new Template(Kind.DELETE_ALL, entityClass, null), builder -> deleteAll(em, builder,
+			entityClass));
+		return em.createQuery(jpql);
+	}
+
+	private static <T> Query deleteAll(EntityManager em, CriteriaBuilder builder, Class<T> entityClass) {
+		CriteriaDelete<T> delete = builder.createCriteriaDelete(entityClass);
+		delete.from(entityClass);
+		return em.createQuery(delete);
+	}
+
+	/**
+	 * @param compiler - creates the query of <code>template</code> from its Criteria query
+	 * @return JPQL of <code>template</code>, built with <code>compiler</code> if not kept yet
+	 */
+	private synchronized String jpql(EntityManager em, Template template, Function<CriteriaBuilder, Query> compiler) {
+		String jpql = templates.get(template);
+		if (jpql == null) {
+			Objects.requireNonNull(em, "EntityManager cannot be null");
+			jpql = compiler.apply(em.getCriteriaBuilder()).unwrap(org.hibernate.query.Query.class).getQueryString();
+			templates.put(template, jpql);
+			compilations++;
+		}
+		return jpql;
+	}
+}
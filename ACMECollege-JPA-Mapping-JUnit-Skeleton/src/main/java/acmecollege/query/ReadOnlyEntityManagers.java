@@ -0,0 +1,94 @@
+package acmecollege.query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+
+/**
+ * Hands out {@link EntityManager}s for reporting work that modifies nothing:
+ * <ul>
+ * <li>entities are loaded read-only:  Hibernate keeps no snapshot of their state, most of the memory of a managed
+ * entity, and a flush does not dirty-check them (it still goes through them for the cascades)</li>
+ * <li>no automatic flush:  queries do not first check the persistence context for pending changes, and a commit
+ * writes nothing.  {@link EntityManager#flush()} still works for the rare entity made writable again with
+ * {@link Session#setReadOnly(Object, boolean)}</li>
+ * <li>optionally, a replica:  the EntityManagers come from a second {@link EntityManagerFactory} on the replica URL,
+ * with its own pool, no schema generation and no second-level cache (the cache is kept consistent by the writes of the
+ * primary factory only)</li>
+ * </ul>
+ * A replica lags behind the primary DB, what was just committed may not be there yet.
+ */
+public class ReadOnlyEntityManagers implements AutoCloseable {
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final EntityManagerFactory emf;
+
+	private final boolean ownsFactory;
+
+	/**
+	 * @param emf - factory of the EntityManagers, not closed by {@link #close()}
+	 */
+	public ReadOnlyEntityManagers(EntityManagerFactory emf) {
+		this(Objects.requireNonNull(emf, "EntityManagerFactory cannot be null"), false);
+	}
+
+	private ReadOnlyEntityManagers(EntityManagerFactory emf, boolean ownsFactory) {
+		this.emf = emf;
+		this.ownsFactory = ownsFactory;
+	}
+
+	/**
+	 * @param persistenceUnitName - Persistence Unit of the primary DB, like acmecollege-PU
+	 * @param replicaUrl          - JDBC URL of the replica, same user and password as the primary
+	 * @param properties          - properties overriding persistence.xml, like the ones of the
+	 *                            {@link acmecollege.pool.ConnectionProfile}
+	 * @return EntityManagers on the replica, {@link #close()} closes their factory
+	 */
+	public static ReadOnlyEntityManagers onReplica(String persistenceUnitName, String replicaUrl,
+		Map<String, ?> properties) {
+		Objects.requireNonNull(replicaUrl, "Replica URL cannot be null");
+		Map<String, Object> replica = new HashMap<>(properties);
+		replica.put(AvailableSettings.JPA_JDBC_URL, replicaUrl);
+		replica.put(AvailableSettings.HBM2DDL_DATABASE_ACTION, "none");
+		replica.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+		replica.put("hibernate.hikari.poolName", "acmecollege-replica-pool");
+		LOG.info("Read-only EntityManagers of {} on replica {}", persistenceUnitName, replicaUrl);
+		return new ReadOnlyEntityManagers(Persistence.createEntityManagerFactory(persistenceUnitName, replica), true);
+	}
+
+	/**
+	 * @return A new EntityManager loading its entities read-only, without automatic flush
+	 */
+	public EntityManager createEntityManager() {
+		return readOnly(emf.createEntityManager());
+	}
+
+	/**
+	 * Switches an EntityManager to the read-only mode.  Entities it already holds stay writable.
+	 *
+	 * @return <code>em</code>
+	 */
+	public static EntityManager readOnly(EntityManager em) {
+		Session session = em.unwrap(Session.class);
+		session.setDefaultReadOnly(true);
+		session.setHibernateFlushMode(FlushMode.MANUAL);
+		return em;
+	}
+
+	@Override
+	public void close() {
+		if (ownsFactory) {
+			emf.close();
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package acmecollege.query;
+
+/**
+ * Row of a list of course registrations, see {@link ProjectionReader#REGISTRATIONS}
+ *
+ * @param letterGrade       - null until graded
+ * @param professorLastName - null when no professor is assigned
+ */
+public record RegistrationRow(int studentId, String studentFirstName, String studentLastName, String courseCode,
+	String letterGrade, String professorLastName) {
+}
@@ -0,0 +1,231 @@
+package acmecollege.query;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.CourseRegistrationPK;
+import acmecollege.entity.CourseRegistrationPK_;
+import acmecollege.entity.CourseRegistration_;
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.PojoBase_;
+
+/**
+ * Reads whole tables without holding them in memory, where <code>getResultList()</code> on a findAll query would load
+ * every row in one {@link List} (and in the persistence context).  Two ways:
+ * <ul>
+ * <li>keyset pagination:  pages of {@link #getPageSize()} rows ordered by the primary key, each page starting after
+ * the last key of the previous one (<code>WHERE id &gt; :lastId ORDER BY id</code>).  Unlike OFFSET, every page costs
+ * the same index range scan, and each query is short so no cursor stays open on the DB.</li>
+ * <li>a server-side cursor:  one query whose rows are fetched {@link #getFetchSize()} at a time.  On MySQL the
+ * connection needs useCursorFetch=true (set in persistence.xml), else the driver reads the whole result first.  No
+ * ORDER BY, the rows come in the order of the DB.</li>
+ * </ul>
+ * Both streams clear the {@link EntityManager} every {@link #getClearInterval()} rows (the keyset one at the next page)
+ * so the heap stays flat:  the entities handed out before are detached (their lazy associations can no longer be
+ * loaded) and changes not flushed yet are lost, flush them first.  A stream must be read by one thread and closed once
+ * done (try-with-resources), the cursor stays open until then.
+ */
+public class StreamingReader {
+
+	public static final int DEFAULT_PAGE_SIZE = 500;
+
+	public static final int DEFAULT_FETCH_SIZE = 500;
+
+	public static final int DEFAULT_CLEAR_INTERVAL = 1_000;
+
+	private final EntityManager em;
+
+	private int pageSize = DEFAULT_PAGE_SIZE;
+
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+
+	private int clearInterval = DEFAULT_CLEAR_INTERVAL;
+
+	public StreamingReader(EntityManager em) {
+		this.em = Objects.requireNonNull(em, "EntityManager cannot be null");
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @param pageSize - number of rows per keyset page
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1");
+		}
+		this.pageSize = pageSize;
+	}
+
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * @param fetchSize - number of rows the cursor brings per round trip
+	 */
+	public void setFetchSize(int fetchSize) {
+		if (fetchSize < 1) {
+			throw new IllegalArgumentException("Fetch size must be at least 1");
+		}
+		this.fetchSize = fetchSize;
+	}
+
+	public int getClearInterval() {
+		return clearInterval;
+	}
+
+	/**
+	 * @param clearInterval - number of rows read between two clears of the {@link EntityManager}
+	 */
+	public void setClearInterval(int clearInterval) {
+		if (clearInterval < 1) {
+			throw new IllegalArgumentException("Clear interval must be at least 1");
+		}
+		this.clearInterval = clearInterval;
+	}
+
+	/**
+	 * @param <T>    - type of entity
+	 * @param type   - entity class, like Student.class
+	 * @param lastId - id of the last entity of the previous page, null for the first page
+	 * @return Up to {@link #getPageSize()} entities with an id greater than <code>lastId</code>, by id
+	 */
+	public <T extends PojoBase> List<T> pageAfter(Class<T> type, Integer lastId) {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<T> query = builder.createQuery(type);
+		Root<T> root = query.from(type);
+		Path<Integer> id = root.get(PojoBase_.id);
+		if (lastId != null) {
+			query.where(builder.greaterThan(id, lastId));
+		}
+		query.select(root).orderBy(builder.asc(id));
+		return em.createQuery(query).setMaxResults(pageSize).getResultList();
+	}
+
+	/**
+	 * The key is (student_id, course_id), compared as <code>student_id &gt; :s OR (student_id = :s AND course_id &gt;
+	 * :c)</code> since JPQL has no row-value comparison;  the DB still reads it as a range of the primary key.
+	 *
+	 * @param last - key of the last registration of the previous page, null for the first page
+	 * @return Up to {@link #getPageSize()} registrations after <code>last</code>, by student then course
+	 */
+	public List<CourseRegistration> registrationsAfter(CourseRegistrationPK last) {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<CourseRegistration> query = builder.createQuery(CourseRegistration.class);
+		Root<CourseRegistration> root = query.from(CourseRegistration.class);
+		Path<CourseRegistrationPK> id = root.get(CourseRegistration_.id);
+		Path<Integer> studentId = id.get(CourseRegistrationPK_.studentId);
+		Path<Integer> courseId = id.get(CourseRegistrationPK_.courseId);
+		if (last != null) {
+			query.where(builder.or(builder.greaterThan(studentId, last.getStudentId()),
+				builder.and(builder.equal(studentId, last.getStudentId()),
+					builder.greaterThan(courseId, last.getCourseId()))));
+		}
+		query.select(root).orderBy(builder.asc(studentId), builder.asc(courseId));
+		return em.createQuery(query).setMaxResults(pageSize).getResultList();
+	}
+
+	/**
+	 * @return All the entities of <code>type</code> by id, read one keyset page at a time
+	 */
+	public <T extends PojoBase> Stream<T> streamByKeyset(Class<T> type) {
+		return keysetStream(lastId -> pageAfter(type, lastId), PojoBase::getId);
+	}
+
+	/**
+	 * @return All the registrations by student then course, read one keyset page at a time
+	 */
+	public Stream<CourseRegistration> streamRegistrationsByKeyset() {
+		return keysetStream(this::registrationsAfter, CourseRegistration::getId);
+	}
+
+	/**
+	 * @param <T>  - type of entity
+	 * @param type - entity class, like Student.class
+	 * @return All the entities of <code>type</code>, in no particular order, read through a server-side cursor.  Must
+	 *         be closed.
+	 */
+	public <T> Stream<T> streamWithCursor(Class<T> type) {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<T> query = builder.createQuery(type);
+		query.select(query.from(type));
+		@SuppressWarnings("unchecked")
+		Query<T> hibernateQuery = em.createQuery(query).unwrap(Query.class);
+		ScrollableResults results = hibernateQuery.setFetchSize(fetchSize).scroll(ScrollMode.FORWARD_ONLY);
+		Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED
+			| Spliterator.NONNULL) {
+			private long read;
+
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				// cleared before the next row is loaded, once the previous ones were handed out
+				if (read > 0 && read % clearInterval == 0) {
+					em.clear();
+				}
+				if (!results.next()) {
+					return false;
+				}
+				read++;
+				action.accept(type.cast(results.get(0)));
+				return true;
+			}
+		};
+		return StreamSupport.stream(rows, false).onClose(results::close);
+	}
+
+	private <K, T> Stream<T> keysetStream(Function<K, List<T>> pageAfter, Function<T, K> keyOf) {
+		Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED
+			| Spliterator.DISTINCT | Spliterator.NONNULL) {
+			private Iterator<T> page;
+			private boolean lastPage;
+			private K lastKey;
+			private long sinceClear;
+
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				if (page == null || !page.hasNext()) {
+					if (lastPage) {
+						return false;
+					}
+					if (sinceClear >= clearInterval) {
+						em.clear();
+						sinceClear = 0;
+					}
+					List<T> entities = pageAfter.apply(lastKey);
+					// a short page is the last one, no need to ask for an empty page after it
+					lastPage = entities.size() < pageSize;
+					if (entities.isEmpty()) {
+						return false;
+					}
+					lastKey = keyOf.apply(entities.get(entities.size() - 1));
+					page = entities.iterator();
+				}
+				sinceClear++;
+				action.accept(page.next());
+				return true;
+			}
+		};
+		return StreamSupport.stream(rows, false);
+	}
+}
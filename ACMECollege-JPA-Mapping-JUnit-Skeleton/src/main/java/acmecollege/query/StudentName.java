@@ -0,0 +1,7 @@
+package acmecollege.query;
+
+/**
+ * Row of a list of students, see {@link ProjectionReader#STUDENT_NAMES}
+ */
+public record StudentName(int id, String firstName, String lastName) {
+}
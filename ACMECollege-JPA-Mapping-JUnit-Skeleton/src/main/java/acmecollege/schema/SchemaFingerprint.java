@@ -0,0 +1,321 @@
+package acmecollege.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jdbc.Work;
+import org.hibernate.jpa.boot.internal.ParsedPersistenceXmlDescriptor;
+import org.hibernate.jpa.boot.internal.PersistenceXmlParser;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.tool.hbm2ddl.ImportSqlCommandExtractor;
+
+import acmecollege.boot.FastBoot;
+
+/**
+ * Skips the drop-and-create of the schema at start-up when it would re-create the schema already in the DB, chosen with
+ * the system property {@value #SYSTEM_PROPERTY} (<code>-Dacmecollege.schema.fingerprint=true</code>).  Used by
+ * {@link acmecollege.ACMECollegeDriver} and the JUnit tests, which build a new {@link EntityManagerFactory} for every
+ * test class (on by default in the Maven build).
+ * <p>
+ * The fingerprint is a SHA-256 of the drop and create scripts and of the mapping Hibernate built (tables, columns and
+ * types of every entity and collection).  It is kept in the table {@value #TABLE}.  At start-up the
+ * EntityManagerFactory is built without schema generation, then the scripts are run only if the fingerprint in the DB
+ * is missing or different.  Only for Persistence Units creating the schema from scripts, the others start as usual.
+ * <p>
+ * The drop script may only empty the tables (acmecollege-drop.sql truncates them) and the create script skips the
+ * tables that exist (CREATE TABLE IF NOT EXISTS), so for drop-and-create the tables of the create script are dropped
+ * as well, last created first.  The fingerprint is only stored if every command of the create script succeeded.
+ */
+public final class SchemaFingerprint {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Name of the system property turning the fingerprint on, off by default
+	 */
+	public static final String SYSTEM_PROPERTY = "acmecollege.schema.fingerprint";
+
+	/**
+	 * Table holding the fingerprint of the schema in the DB, not mapped by any entity
+	 */
+	public static final String TABLE = "schema_fingerprint";
+
+	/**
+	 * persistence.xml properties of the units already looked up, the file is parsed once
+	 */
+	private static final Map<String, Properties> UNITS = new ConcurrentHashMap<>();
+
+	/**
+	 * CREATE TABLE command of a script, group 1 is the table name as written (quoted, qualified or not)
+	 */
+	private static final Pattern CREATE_TABLE = Pattern.compile(
+		"^\\s*CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?([`\"\\w.]+)", Pattern.CASE_INSENSITIVE);
+
+	private SchemaFingerprint() {
+	}
+
+	/**
+	 * @return True if the system property {@value #SYSTEM_PROPERTY} is true
+	 */
+	public static boolean isEnabled() {
+		return Boolean.getBoolean(SYSTEM_PROPERTY);
+	}
+
+	/**
+	 * Same as {@link Persistence#createEntityManagerFactory(String, Map)}, but when the fingerprint is on the schema is
+	 * only dropped and created if it changed.  Started by {@link FastBoot}, so with the shorter start-up if it is on.
+	 *
+	 * @param persistenceUnitName - name of the Persistence Unit
+	 * @param properties          - properties overriding the ones in persistence.xml
+	 * @return An instance of EntityManagerFactory
+	 */
+	public static EntityManagerFactory createEntityManagerFactory(String persistenceUnitName,
+		Map<String, Object> properties) {
+		Map<String, Object> settings = settings(persistenceUnitName, properties);
+		Object action = settings.get(AvailableSettings.HBM2DDL_DATABASE_ACTION);
+		if (!isEnabled() || !"drop-and-create".equals(action) && !"create".equals(action)
+			|| !"script".equals(settings.get(AvailableSettings.HBM2DDL_CREATE_SOURCE))) {
+			return FastBoot.createEntityManagerFactory(persistenceUnitName, properties);
+		}
+
+		String dropScript = "drop-and-create".equals(action)
+			&& "script".equals(settings.get(AvailableSettings.HBM2DDL_DROP_SOURCE))
+				? script(settings.get(AvailableSettings.HBM2DDL_DROP_SCRIPT_SOURCE)) : "";
+		String createScript = script(settings.get(AvailableSettings.HBM2DDL_CREATE_SCRIPT_SOURCE));
+
+		Map<String, Object> noGeneration = new HashMap<>(properties);
+		noGeneration.put(AvailableSettings.HBM2DDL_DATABASE_ACTION, "none");
+		EntityManagerFactory emf = FastBoot.createEntityManagerFactory(persistenceUnitName, noGeneration);
+		try {
+			SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+			String fingerprint = fingerprint(dropScript, createScript, describeMapping(sessionFactory));
+			ImportSqlCommandExtractor extractor = sessionFactory.getServiceRegistry()
+				.getService(ImportSqlCommandExtractor.class);
+			doWork(emf, connection -> {
+				if (fingerprint.equals(storedFingerprint(connection))) {
+					LOG.debug("Schema of {} unchanged ({}), skipping {}", persistenceUnitName, fingerprint, action);
+					return;
+				}
+				LOG.debug("Schema of {} changed, running {}", persistenceUnitName, action);
+				String[] createCommands = extractor.extractCommands(new StringReader(createScript));
+				if ("drop-and-create".equals(action)) {
+					execute(connection, extractor.extractCommands(new StringReader(dropScript)));
+					execute(connection, dropTables(createCommands));
+				}
+				int failures = execute(connection, createCommands);
+				if (failures > 0) {
+					LOG.warn("{} command(s) of the create script of {} failed, fingerprint not stored", failures,
+						persistenceUnitName);
+					return;
+				}
+				store(connection, fingerprint);
+			});
+		} catch (RuntimeException e) {
+			emf.close();
+			throw e;
+		}
+		return emf;
+	}
+
+	/**
+	 * @param createCommands - commands of the create script, tables created before the ones referencing them
+	 * @return DROP TABLE IF EXISTS of every table created by <code>createCommands</code>, last created first
+	 */
+	static String[] dropTables(String[] createCommands) {
+		List<String> drops = new ArrayList<>();
+		if (createCommands != null) {
+			for (String command : createCommands) {
+				Matcher matcher = CREATE_TABLE.matcher(command);
+				if (matcher.find()) {
+					drops.add("DROP TABLE IF EXISTS " + matcher.group(1));
+				}
+			}
+		}
+		Collections.reverse(drops);
+		return drops.toArray(String[]::new);
+	}
+
+	/**
+	 * @return SHA-256 (hex) of the scripts and the description of the mapping
+	 */
+	static String fingerprint(String dropScript, String createScript, String mapping) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String part : new String[] { dropScript, createScript, mapping }) {
+				digest.update(part.getBytes(StandardCharsets.UTF_8));
+				// Separator, so moving text from one part to the next changes the fingerprint
+				digest.update((byte) 0);
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return Tables, columns and types of every entity and collection, in a stable order
+	 */
+	static String describeMapping(SessionFactoryImplementor sessionFactory) {
+		Map<String, String> lines = new TreeMap<>();
+		sessionFactory.getMetamodel().entityPersisters().forEach((name, entityPersister) -> {
+			AbstractEntityPersister persister = (AbstractEntityPersister) entityPersister;
+			StringBuilder line = new StringBuilder(persister.getTableName())
+				.append(" id").append(Arrays.toString(persister.getIdentifierColumnNames()))
+				.append(' ').append(persister.getIdentifierType().getName());
+			if (persister.getDiscriminatorColumnName() != null) {
+				line.append(" discriminator ").append(persister.getDiscriminatorColumnName());
+			}
+			String[] propertyNames = persister.getPropertyNames();
+			for (int i = 0; i < propertyNames.length; i++) {
+				line.append(' ').append(propertyNames[i])
+					.append(Arrays.toString(persister.getPropertyColumnNames(i)))
+					.append(' ').append(persister.getPropertyTypes()[i].getName());
+			}
+			lines.put("entity " + name, line.toString());
+		});
+		sessionFactory.getMetamodel().collectionPersisters().forEach((role, collectionPersister) -> {
+			AbstractCollectionPersister persister = (AbstractCollectionPersister) collectionPersister;
+			lines.put("collection " + role, persister.getTableName()
+				+ " key" + Arrays.toString(persister.getKeyColumnNames())
+				+ " element" + Arrays.toString(persister.getElementColumnNames())
+				+ ' ' + persister.getElementType().getName());
+		});
+		StringBuilder description = new StringBuilder();
+		lines.forEach((key, line) -> description.append(key).append(": ").append(line).append('\n'));
+		return description.toString();
+	}
+
+	/**
+	 * @return persistence.xml properties of the unit overridden by <code>properties</code>
+	 */
+	private static Map<String, Object> settings(String persistenceUnitName, Map<String, Object> properties) {
+		Properties unit = UNITS.computeIfAbsent(persistenceUnitName,
+			name -> PersistenceXmlParser.locatePersistenceUnits(Map.of()).stream()
+				.filter(descriptor -> descriptor.getName().equals(name))
+				.map(ParsedPersistenceXmlDescriptor::getProperties)
+				.findFirst()
+				.orElseGet(Properties::new));
+		Map<String, Object> settings = new HashMap<>();
+		unit.forEach((key, value) -> settings.put((String) key, value));
+		settings.putAll(properties);
+		return settings;
+	}
+
+	/**
+	 * @param source - name of a resource on the classpath or a Reader, like the *-script-source settings
+	 * @return Content of the script
+	 */
+	private static String script(Object source) {
+		if (source instanceof Reader) {
+			try (Reader reader = (Reader) source) {
+				StringBuilder script = new StringBuilder();
+				char[] buffer = new char[8192];
+				for (int n; (n = reader.read(buffer)) > 0;) {
+					script.append(buffer, 0, n);
+				}
+				return script.toString();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream((String) source)) {
+			if (in == null) {
+				throw new IllegalArgumentException("Script " + source + " not found");
+			}
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String storedFingerprint(Connection connection) {
+		try (Statement statement = connection.createStatement();
+			ResultSet rs = statement.executeQuery("SELECT fingerprint FROM " + TABLE)) {
+			return rs.next() ? rs.getString(1) : null;
+		} catch (SQLException e) {
+			// No table yet
+			return null;
+		}
+	}
+
+	/**
+	 * Run the commands of a script, failures are logged and the next command is run, same as Hibernate does
+	 *
+	 * @return Number of commands that failed
+	 */
+	private static int execute(Connection connection, String[] commands) {
+		int failures = 0;
+		if (commands == null) {
+			return failures;
+		}
+		for (String command : commands) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute(command);
+			} catch (SQLException e) {
+				LOG.warn("Schema command failed: {} ({})", command, e.getMessage());
+				failures++;
+			}
+		}
+		return failures;
+	}
+
+	private static void store(Connection connection, String fingerprint) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (fingerprint VARCHAR(64) NOT NULL)");
+			statement.executeUpdate("DELETE FROM " + TABLE);
+		}
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE + " VALUES (?)")) {
+			insert.setString(1, fingerprint);
+			insert.executeUpdate();
+		}
+	}
+
+	private static void doWork(EntityManagerFactory emf, Work work) {
+		EntityManager em = emf.createEntityManager();
+		EntityTransaction et = em.getTransaction();
+		try {
+			et.begin();
+			em.unwrap(Session.class).doWork(work);
+			et.commit();
+		} finally {
+			if (et.isActive()) {
+				et.rollback();
+			}
+			em.close();
+		}
+	}
+}
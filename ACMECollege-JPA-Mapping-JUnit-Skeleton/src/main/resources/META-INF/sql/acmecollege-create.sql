@@ -15,6 +15,17 @@
 CREATE SCHEMA IF NOT EXISTS `acmecollege` DEFAULT CHARACTER SET utf8mb4;
 USE `acmecollege`;
 
+-- ------------------------------------------------------------------------
+-- Table `id_generator`
+-- Backs the pooled table generator declared on PojoBase, one row (segment) per entity table.
+-- Rows are created on first use, next_val is the start of the next unallocated block of id's.
+-- ------------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS `id_generator` (
+  `sequence_name` VARCHAR(255) NOT NULL,
+  `next_val` BIGINT NULL,
+  PRIMARY KEY (`sequence_name`)
+);
+
 -- ------------------------------------------------------------------------
 -- Table `student`
 -- Note:  This is NOT the same Student Entity as in Lab1/Assignment1/Assignment2
@@ -117,9 +128,23 @@ CREATE TABLE IF NOT EXISTS `course` (
   `created` DATETIME NULL,
   `updated` DATETIME NULL,
   `version` BIGINT NOT NULL DEFAULT 1,
-  PRIMARY KEY (`course_id`)
+  PRIMARY KEY (`course_id`),
+  UNIQUE INDEX `code_year_semester_UNIQUE` (`course_code` ASC, `year` ASC, `semester` ASC) VISIBLE
 );
 
+-- Migration:  a `course` table created before the natural id of Course has no code_year_semester_UNIQUE, and
+-- CREATE TABLE IF NOT EXISTS leaves it as is.  Add the index unless it is there already (MySQL has no
+-- ADD INDEX IF NOT EXISTS).  It fails with "Duplicate entry" while two courses share a code, year and semester:
+-- rename or delete one of them, the index is added at the next start-up.
+SET @add_code_year_semester_UNIQUE = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE `course` ADD UNIQUE INDEX `code_year_semester_UNIQUE` (`course_code` ASC, `year` ASC, `semester` ASC) VISIBLE',
+    'DO 0')
+  FROM `information_schema`.`statistics`
+  WHERE `table_schema` = DATABASE() AND `table_name` = 'course' AND `index_name` = 'code_year_semester_UNIQUE');
+PREPARE add_code_year_semester_UNIQUE FROM @add_code_year_semester_UNIQUE;
+EXECUTE add_code_year_semester_UNIQUE;
+DEALLOCATE PREPARE add_code_year_semester_UNIQUE;
+
 -- -----------------------------------------------------
 -- Table `course_registration`
 -- -----------------------------------------------------
@@ -32,4 +32,6 @@ TRUNCATE TABLE acmecollege.student;
 
 TRUNCATE TABLE acmecollege.course;
 
+TRUNCATE TABLE acmecollege.id_generator;
+
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file
@@ -0,0 +1,174 @@
+package acmecollege.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import acmecollege.entity.Course;
+import acmecollege.pool.ConnectionPoolMetrics;
+import common.BenchmarkBase;
+
+/**
+ * Load test of the connection pool:  {@link #THREADS} threads each open {@link #SESSIONS} short
+ * {@link EntityManager} sessions (begin, <code>em.find</code> of a {@link Course}, commit, close), which is what a
+ * web app does per request.  Run with Hibernate's built-in pool and with HikariCP, both limited to the same number of
+ * connections, and report the p50/p99/max latency of a session.  For HikariCP the peak active and pending gauges are
+ * sampled during the run.<br>
+ * The built-in pool does not wait for a connection to be returned:  when all of them are in use the session fails,
+ * those failures are counted and left out of the latencies.
+ * <p>
+ * The second-level cache is turned off so every session really needs a connection.
+ * <p>
+ * Settings (system properties): benchmark.threads (default 32), benchmark.sessions (default 500 per thread),
+ * benchmark.poolSize (default 10), benchmark.warmup, benchmark.runs
+ */
+public class ConnectionPoolBenchmark extends BenchmarkBase {
+
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+
+	private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 500);
+
+	private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 10);
+
+	private static final int COURSES = 100;
+
+	public static void main(String[] args) throws Exception {
+		run("built-in pool", Map.of("hibernate.cache.use_second_level_cache", "false",
+			"hibernate.connection.provider_class",
+			"org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl",
+			"hibernate.connection.pool_size", String.valueOf(POOL_SIZE)));
+		run("HikariCP", Map.of("hibernate.cache.use_second_level_cache", "false",
+			"hibernate.hikari.maximumPoolSize", String.valueOf(POOL_SIZE)));
+	}
+
+	private static void run(String label, Map<String, Object> properties) throws Exception {
+		emf = buildEMF(persistenceUnit(), properties);
+		ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			deleteAllData();
+			List<Integer> courseIds = createCourses();
+
+			AtomicInteger failures = new AtomicInteger();
+			AtomicInteger peakActive = new AtomicInteger();
+			AtomicInteger peakPending = new AtomicInteger();
+			if (ConnectionPoolMetrics.isPooled(emf)) {
+				HikariPoolMXBean gauges = ConnectionPoolMetrics.gauges(emf);
+				sampler.scheduleAtFixedRate(() -> {
+					peakActive.accumulateAndGet(gauges.getActiveConnections(), Math::max);
+					peakPending.accumulateAndGet(gauges.getThreadsAwaitingConnection(), Math::max);
+				}, 0, 5, TimeUnit.MILLISECONDS);
+			}
+
+			for (int i = 0; i < WARMUP_RUNS; i++) {
+				load(workers, courseIds, failures);
+			}
+			failures.set(0);
+			peakActive.set(0);
+			peakPending.set(0);
+			long[] latencies = new long[0];
+			long elapsed = 0;
+			for (int i = 0; i < MEASURED_RUNS; i++) {
+				long start = System.nanoTime();
+				long[] runLatencies = load(workers, courseIds, failures);
+				elapsed += System.nanoTime() - start;
+				latencies = concat(latencies, runLatencies);
+			}
+			Arrays.sort(latencies);
+
+			if (latencies.length == 0) {
+				LOG.info("{}: all {} sessions failed", label, failures.get());
+				return;
+			}
+			LOG.info("{}: {} threads, {} connections, {} sessions/sec, {} failed, latency p50 {} ms, p99 {} ms, max {} ms",
+				label, THREADS, POOL_SIZE, String.format("%.0f", perSecond(latencies.length, elapsed)), failures.get(),
+				String.format("%.2f", millis(percentile(latencies, 50))),
+				String.format("%.2f", millis(percentile(latencies, 99))),
+				String.format("%.2f", millis(latencies[latencies.length - 1])));
+			if (ConnectionPoolMetrics.isPooled(emf)) {
+				LOG.info("{}: peak active {}, peak pending {}", label, peakActive.get(), peakPending.get());
+				ConnectionPoolMetrics.log(emf);
+			}
+		} finally {
+			sampler.shutdownNow();
+			workers.shutdownNow();
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	/**
+	 * @return Latency of every successful session, in nanoseconds
+	 */
+	private static long[] load(ExecutorService workers, List<Integer> courseIds, AtomicInteger failures)
+		throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<long[]>> results = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			results.add(workers.submit(() -> {
+				long[] latencies = new long[SESSIONS];
+				int succeeded = 0;
+				start.await();
+				for (int i = 0; i < SESSIONS; i++) {
+					long begin = System.nanoTime();
+					EntityManager em = getEntityManager();
+					try {
+						EntityTransaction et = em.getTransaction();
+						et.begin();
+						em.find(Course.class, courseIds.get(ThreadLocalRandom.current().nextInt(courseIds.size())));
+						et.commit();
+						latencies[succeeded++] = System.nanoTime() - begin;
+					} catch (PersistenceException e) {
+						failures.incrementAndGet();
+					} finally {
+						em.close();
+					}
+				}
+				return Arrays.copyOf(latencies, succeeded);
+			}));
+		}
+		start.countDown();
+		long[] latencies = new long[0];
+		for (Future<long[]> result : results) {
+			latencies = concat(latencies, result.get());
+		}
+		return latencies;
+	}
+
+	private static long[] concat(long[] first, long[] second) {
+		long[] all = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, all, first.length, second.length);
+		return all;
+	}
+
+	private static List<Integer> createCourses() {
+		List<Integer> courseIds = new ArrayList<>();
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		for (int i = 0; i < COURSES; i++) {
+			Course course = new Course();
+			course.setCourse(String.format("CST%04d", i), "Course " + i, 2022, "AUTUMN", 3, (byte) 0);
+			em.persist(course);
+			courseIds.add(course.getId());
+		}
+		et.commit();
+		em.close();
+		return courseIds;
+	}
+}
@@ -0,0 +1,86 @@
+package acmecollege.benchmark;
+
+import java.sql.SQLException;
+import java.util.function.IntConsumer;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import common.BenchmarkBase;
+import common.PinnedConnectionProvider;
+
+/**
+ * Cost of resetting the DB after a test which left <code>rows</code> students behind:  {@link #deleteAllData()} (what
+ * the tests did before each test) against the rollback of {@link PinnedConnectionProvider} (what
+ * common.DataIsolationExtension does now).  Only the reset is timed, not the inserts.
+ * <p>
+ * Settings (system properties): benchmark.rows (comma separated, default 10,1000,10000), benchmark.warmup,
+ * benchmark.runs
+ */
+public class DataResetBenchmark extends BenchmarkBase {
+
+	private static final String ROWS = System.getProperty("benchmark.rows", "10,1000,10000");
+
+	private static PinnedConnectionProvider provider;
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			provider = (PinnedConnectionProvider) emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+				.getService(ConnectionProvider.class);
+			deleteAllData();
+			for (String rows : ROWS.split(",")) {
+				int count = Integer.parseInt(rows.trim());
+				measure("deleteAllData", count, run -> {
+					insertStudents(count);
+					long start = System.nanoTime();
+					deleteAllData();
+					return System.nanoTime() - start;
+				});
+				measure("rollback", count, run -> {
+					pin();
+					insertStudents(count);
+					long start = System.nanoTime();
+					unpin();
+					return System.nanoTime() - start;
+				});
+			}
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	@FunctionalInterface
+	private interface TimedReset {
+		long resetNanos(int run);
+	}
+
+	private static void measure(String label, int rows, TimedReset reset) {
+		long[] best = { Long.MAX_VALUE };
+		IntConsumer work = run -> {
+			long nanos = reset.resetNanos(run);
+			if (run >= 0) {
+				best[0] = Math.min(best[0], nanos);
+			}
+		};
+		bestOf(work);
+		LOG.info("{} after {} rows: {} ms", label, rows, String.format("%.2f", millis(best[0])));
+	}
+
+	private static void pin() {
+		try {
+			provider.pin();
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void unpin() {
+		try {
+			provider.unpin();
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
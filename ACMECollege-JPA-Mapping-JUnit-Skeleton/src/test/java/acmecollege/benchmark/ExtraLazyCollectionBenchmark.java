@@ -0,0 +1,60 @@
+package acmecollege.benchmark;
+
+import java.util.function.ToIntFunction;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Hibernate;
+
+import acmecollege.entity.Course;
+import common.BenchmarkBase;
+
+/**
+ * Cost of <code>Course.getCourseRegistrations().size()</code> on a large course section:  the extra-lazy mapping
+ * (COUNT query) against the previous behaviour, where the whole collection was initialized first.<br>
+ * Reports latency and the heap retained by the persistence context after the call.
+ * <p>
+ * Settings (system properties): benchmark.registrations (default 5000), benchmark.warmup, benchmark.runs
+ */
+public class ExtraLazyCollectionBenchmark extends BenchmarkBase {
+
+	private static final int REGISTRATIONS = Integer.getInteger("benchmark.registrations", 5_000);
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			int courseId = createCourseSection(REGISTRATIONS);
+
+			measure("fully initialized", courseId, course -> {
+				Hibernate.initialize(course.getCourseRegistrations());
+				return course.getCourseRegistrations().size();
+			});
+			measure("extra-lazy", courseId, course -> course.getCourseRegistrations().size());
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static void measure(String label, int courseId, ToIntFunction<Course> sizeOf) {
+		int[] size = new int[1];
+		long nanos = bestOf(run -> {
+			emf.getCache().evictAll();
+			EntityManager em = getEntityManager();
+			size[0] = sizeOf.applyAsInt(em.find(Course.class, courseId));
+			em.close();
+		});
+
+		// Heap retained while the EntityManager (and what it loaded) is still open
+		emf.getCache().evictAll();
+		long before = usedHeap();
+		EntityManager em = getEntityManager();
+		sizeOf.applyAsInt(em.find(Course.class, courseId));
+		long retained = usedHeap() - before;
+		em.close();
+
+		LOG.info("{}: size() = {} in {} ms, ~{} KB retained by the persistence context", label, size[0],
+			String.format("%.2f", millis(nanos)), retained / 1024);
+	}
+}
@@ -0,0 +1,72 @@
+package acmecollege.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+
+import acmecollege.entity.CourseRegistration;
+import common.BenchmarkBase;
+
+/**
+ * Time of <code>em.flush()</code> against the number of entities in the persistence context:  the registrations of a
+ * course section are loaded, one grade is changed, then the flush finds the one dirty entity.<br>
+ * Without bytecode enhancement Hibernate compares every managed entity to the snapshot taken when it was loaded, so
+ * the flush grows with the size of the session.  Enhanced entities track their own changes (the Maven build enhances
+ * them, see the 'enhance' profile of the pom), the flush only asks each entity if it is dirty.  To compare, run the
+ * benchmark on a build made with <code>mvn clean package -Dacmecollege.enhance=false</code>.
+ * <p>
+ * Settings (system properties): benchmark.registrations (default 100,1000,10000), benchmark.warmup, benchmark.runs
+ */
+public class FlushBenchmark extends BenchmarkBase {
+
+	private static final int[] REGISTRATIONS = Arrays.stream(
+		System.getProperty("benchmark.registrations", "100,1000,10000").split(","))
+		.mapToInt(count -> Integer.parseInt(count.trim()))
+		.toArray();
+
+	public static void main(String[] args) {
+		boolean enhanced = SelfDirtinessTracker.class.isAssignableFrom(CourseRegistration.class);
+		emf = buildEMF();
+		try {
+			for (int registrations : REGISTRATIONS) {
+				deleteAllData();
+				int courseId = createCourseSection(registrations);
+				measure(enhanced ? "enhanced" : "not enhanced", courseId);
+			}
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static void measure(String label, int courseId) {
+		long best = Long.MAX_VALUE;
+		int managed = 0;
+		for (int i = -WARMUP_RUNS; i < MEASURED_RUNS; i++) {
+			EntityManager em = getEntityManager();
+			EntityTransaction et = em.getTransaction();
+			et.begin();
+			List<CourseRegistration> registrations = em.createQuery(
+				"SELECT cr FROM CourseRegistration cr WHERE cr.course.id = :courseId", CourseRegistration.class)
+				.setParameter("courseId", courseId)
+				.getResultList();
+			registrations.get(0).setNumericGrade(registrations.get(0).getNumericGrade() + 1);
+			managed = em.unwrap(Session.class).getStatistics().getEntityCount();
+
+			long start = System.nanoTime();
+			em.flush();
+			long nanos = System.nanoTime() - start;
+			best = i < 0 ? best : Math.min(best, nanos);
+
+			et.rollback();
+			em.close();
+		}
+		LOG.info("{}: flush of {} managed entities (1 dirty) in {} ms", label, managed,
+			String.format("%.2f", millis(best)));
+	}
+}
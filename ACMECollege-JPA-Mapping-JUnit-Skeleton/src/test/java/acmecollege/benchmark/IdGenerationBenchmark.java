@@ -0,0 +1,51 @@
+package acmecollege.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Student;
+import common.BenchmarkBase;
+
+/**
+ * Compares insert throughput (rows/sec) of {@link Student} when {@link PojoBase} id's come from
+ * GenerationType.IDENTITY against the pooled table generator.<br>
+ * IDENTITY is brought back with META-INF/orm-identity.xml, everything else (including hibernate.jdbc.batch_size) is
+ * identical between the two runs.
+ * <p>
+ * Settings (system properties): benchmark.rows (default 10000), benchmark.warmup, benchmark.runs
+ */
+public class IdGenerationBenchmark extends BenchmarkBase {
+
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+
+	public static void main(String[] args) {
+		Map<String, Object> identity = new HashMap<>();
+		identity.put("hibernate.ejb.xml_files", List.of("META-INF/orm-identity.xml"));
+
+		double identityRate = run("IDENTITY", identity);
+		double pooledRate = run("pooled table generator", Map.of());
+
+		LOG.info("Insert of {} Students: IDENTITY {} rows/sec, pooled {} rows/sec, speed-up x{}", ROWS,
+			String.format("%.0f", identityRate), String.format("%.0f", pooledRate),
+			String.format("%.2f", pooledRate / identityRate));
+	}
+
+	private static double run(String label, Map<String, Object> properties) {
+		emf = buildEMF(persistenceUnit(), properties);
+		try {
+			long nanos = bestOf(run -> {
+				deleteAllData();
+				insertStudents(ROWS);
+			});
+			double rate = perSecond(ROWS, nanos);
+			LOG.info("{}: {} rows in {} ms ({} rows/sec)", label, ROWS, String.format("%.1f", millis(nanos)),
+				String.format("%.0f", rate));
+			return rate;
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package acmecollege.benchmark;
+
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+
+import acmecollege.entity.Student;
+import common.BenchmarkBase;
+
+/**
+ * Throughput of a persist/find loop (persist a {@link Student} and commit, then find it in a new
+ * {@link EntityManager}) under the logging profile of the JVM, to compare:
+ * <ul>
+ * <li>log4j2.xml, the default:  synchronous, every statement, bind parameter and flushed entity</li>
+ * <li>log4j2.xml with -Dlog4j2.contextSelector=org.apache.logging.log4j.core.async.AsyncLoggerContextSelector</li>
+ * <li>-Dlog4j.configurationFile=log4j2-production.xml:  asynchronous, SQL sampled 1 second per minute</li>
+ * </ul>
+ * Redirect the output to a file, a terminal would be the bottleneck.
+ * <p>
+ * Settings (system properties): benchmark.iterations (default 2000), benchmark.warmup, benchmark.runs
+ */
+public class LoggingBenchmark extends BenchmarkBase {
+
+	private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 2_000);
+
+	public static void main(String[] args) {
+		LoggerContext context = (LoggerContext) LogManager.getContext(false);
+		String profile = context.getConfiguration().getName()
+			+ (context instanceof AsyncLoggerContext ? ", all loggers asynchronous" : "");
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			long nanos = bestOf(run -> persistAndFind(ITERATIONS));
+			LOG.info("{}: {} persist/find in {} ms ({} per sec)", profile, ITERATIONS,
+				String.format("%.1f", millis(nanos)), String.format("%.0f", perSecond(ITERATIONS, nanos)));
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+}
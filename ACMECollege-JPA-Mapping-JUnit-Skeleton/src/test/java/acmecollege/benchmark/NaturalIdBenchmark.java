@@ -0,0 +1,104 @@
+package acmecollege.benchmark;
+
+import java.util.function.BiFunction;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Cache;
+
+import acmecollege.entity.AcademicStudentClub;
+import acmecollege.entity.Course;
+import acmecollege.entity.StudentClub;
+import acmecollege.query.NaturalIdReader;
+import common.BenchmarkBase;
+
+/**
+ * Looks up every {@link Course} by code, year and semester and every {@link StudentClub} by name, each lookup in a new
+ * EntityManager as a request would, with:
+ * <ul>
+ * <li>JPQL:  one SELECT per lookup, whatever the second-level cache holds</li>
+ * <li>natural id, cold:  the second-level cache is emptied before each run, one SELECT per lookup which fills it</li>
+ * <li>natural id, warm:  natural id and entity come from the second-level cache, no SQL</li>
+ * </ul>
+ * Reports lookups/sec.
+ * <p>
+ * Settings (system properties): benchmark.lookups (default 500 courses and as many clubs), benchmark.warmup,
+ * benchmark.runs
+ */
+public class NaturalIdBenchmark extends BenchmarkBase {
+
+	private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 500);
+
+	private static final int YEAR = 2022;
+
+	private static final String SEMESTER = "AUTUMN";
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			createData();
+			measure("JPQL", false, (em, i) -> {
+				em.createQuery("SELECT c FROM Course c WHERE c.courseCode = :code AND c.year = :year"
+					+ " AND c.semester = :semester", Course.class)
+					.setParameter("code", courseCode(i))
+					.setParameter("year", YEAR)
+					.setParameter("semester", SEMESTER)
+					.getSingleResult();
+				return em.createQuery("SELECT c FROM StudentClub c WHERE c.name = :name", StudentClub.class)
+					.setParameter("name", clubName(i))
+					.getSingleResult();
+			});
+			measure("natural id, cold", true, NaturalIdBenchmark::findByNaturalId);
+			measure("natural id, warm", false, NaturalIdBenchmark::findByNaturalId);
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static Object findByNaturalId(EntityManager em, int i) {
+		NaturalIdReader reader = new NaturalIdReader(em);
+		reader.findCourse(courseCode(i), YEAR, SEMESTER);
+		return reader.findClub(clubName(i));
+	}
+
+	private static void measure(String label, boolean cold, BiFunction<EntityManager, Integer, Object> lookup) {
+		long nanos = bestOf(run -> {
+			if (cold) {
+				emf.getCache().unwrap(Cache.class).evictAllRegions();
+			}
+			for (int i = 0; i < LOOKUPS; i++) {
+				EntityManager em = emf.createEntityManager();
+				lookup.apply(em, i);
+				em.close();
+			}
+		});
+		LOG.info("{}: {} lookups/sec", label, String.format("%.0f", perSecond(2L * LOOKUPS, nanos)));
+	}
+
+	private static String courseCode(int i) {
+		return String.format("CST%04d", i);
+	}
+
+	private static String clubName(int i) {
+		return "Club " + i;
+	}
+
+	private static void createData() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		for (int i = 0; i < LOOKUPS; i++) {
+			Course course = new Course();
+			course.setCourse(courseCode(i), "Course " + i, YEAR, SEMESTER, 3, (byte) 0);
+			em.persist(course);
+			StudentClub club = new AcademicStudentClub();
+			club.setName(clubName(i));
+			em.persist(club);
+		}
+		et.commit();
+		em.close();
+	}
+}
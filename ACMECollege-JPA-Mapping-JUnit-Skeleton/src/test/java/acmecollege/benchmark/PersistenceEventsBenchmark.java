@@ -0,0 +1,67 @@
+package acmecollege.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import acmecollege.entity.Student;
+import acmecollege.jfr.CommitEvent;
+import acmecollege.jfr.EntityOperationEvent;
+import acmecollege.jfr.FlushEvent;
+import acmecollege.jfr.PersistenceEventsIntegrator;
+import acmecollege.jfr.QueryExecutionEvent;
+import acmecollege.jfr.TransactionEvent;
+import common.BenchmarkBase;
+import jdk.jfr.Recording;
+
+/**
+ * Cost of the JFR events of acmecollege.jfr on a persist/find loop (persist a {@link Student} and commit, then find it
+ * in a new {@link EntityManager}):  without recording, then with a recording of all of them, without duration
+ * threshold, to disk.  The two alternate on the same {@link javax.persistence.EntityManagerFactory}.  Run it again
+ * with -D{@value PersistenceEventsIntegrator#ENABLED_SETTING}=false for the loop without the wrapped Hibernate
+ * listeners, the baseline of the first line.
+ * <p>
+ * Settings (system properties): benchmark.iterations (default 2000), benchmark.warmup, benchmark.runs
+ */
+public class PersistenceEventsBenchmark extends BenchmarkBase {
+
+	private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 2_000);
+
+	public static void main(String[] args) throws IOException {
+		String listeners = "false".equals(System.getProperty(PersistenceEventsIntegrator.ENABLED_SETTING))
+			? "listeners not wrapped" : "listeners wrapped";
+		Path file = Files.createTempFile("PersistenceEventsBenchmark", ".jfr");
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			long[] best = { Long.MAX_VALUE, Long.MAX_VALUE };
+			for (int round = 0; round < 3; round++) {
+				best[0] = Math.min(best[0], bestOf(run -> persistAndFind(ITERATIONS)));
+				try (Recording recording = new Recording()) {
+					for (Class<? extends jdk.jfr.Event> event : List.of(EntityOperationEvent.class, FlushEvent.class,
+						TransactionEvent.class, CommitEvent.class, QueryExecutionEvent.class)) {
+						recording.enable(event).withoutThreshold();
+					}
+					recording.setToDisk(true);
+					recording.setDestination(file);
+					recording.start();
+					best[1] = Math.min(best[1], bestOf(run -> persistAndFind(ITERATIONS)));
+				}
+				deleteAllData();
+			}
+			LOG.info("{}, no recording: {} persist/find in {} ms ({} per sec)", listeners, ITERATIONS,
+				String.format("%.1f", millis(best[0])), String.format("%.0f", perSecond(ITERATIONS, best[0])));
+			LOG.info("{}, recording:    {} persist/find in {} ms ({} per sec), overhead {}%, {} KB recorded",
+				listeners, ITERATIONS, String.format("%.1f", millis(best[1])),
+				String.format("%.0f", perSecond(ITERATIONS, best[1])),
+				String.format("%.1f", 100d * (best[1] - best[0]) / best[0]), Files.size(file) / 1024);
+		} finally {
+			deleteAllData();
+			emf.close();
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package acmecollege.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import acmecollege.query.ProjectionReader;
+import acmecollege.query.RegistrationRow;
+import common.BenchmarkBase;
+
+/**
+ * The registration list screen ({@link RegistrationRow}:  student name, course code, letter grade, professor last
+ * name) read two ways in a new {@link EntityManager}:  entities (JOIN FETCH of student, course and professor, then
+ * copied into rows) against the {@link ProjectionReader#REGISTRATIONS} constructor expression.<br>
+ * Reports latency and the bytes allocated by the thread per read, the persistence context included.
+ * <p>
+ * Settings (system properties): benchmark.students (default 1000, 5 registrations each), benchmark.warmup,
+ * benchmark.runs
+ */
+public class ProjectionBenchmark extends BenchmarkBase {
+
+	private static final int STUDENTS = Integer.getInteger("benchmark.students", 1_000);
+
+	private static final int COURSES_PER_STUDENT = 5;
+
+	private static final String FETCH_REGISTRATIONS = "SELECT cr FROM CourseRegistration cr JOIN FETCH cr.student s "
+		+ "JOIN FETCH cr.course c LEFT JOIN FETCH cr.professor ORDER BY s.lastName, c.courseCode";
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+		(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			createRegistrations();
+			measure("entities + JOIN FETCH", em -> em.createQuery(FETCH_REGISTRATIONS, CourseRegistration.class)
+				.getResultList().stream().map(cr -> new RegistrationRow(cr.getStudent().getId(),
+					cr.getStudent().getFirstName(), cr.getStudent().getLastName(), cr.getCourse().getCourseCode(),
+					cr.getLetterGrade(), cr.getProfessor() == null ? null : cr.getProfessor().getLastName()))
+				.collect(Collectors.toList()));
+			measure("projection", em -> new ProjectionReader(em).registrations());
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static void measure(String label, Function<EntityManager, List<RegistrationRow>> read) {
+		int[] rows = new int[1];
+		long[] allocated = { Long.MAX_VALUE };
+		long nanos = bestOf(run -> {
+			long before = THREADS.getCurrentThreadAllocatedBytes();
+			EntityManager em = getEntityManager();
+			rows[0] = read.apply(em).size();
+			em.close();
+			allocated[0] = Math.min(allocated[0], THREADS.getCurrentThreadAllocatedBytes() - before);
+		});
+		LOG.info("{}: {} rows in {} ms, {} KB allocated ({} bytes per row)", label, rows[0],
+			String.format("%.1f", millis(nanos)), allocated[0] / 1024, allocated[0] / Math.max(rows[0], 1));
+	}
+
+	private static void createRegistrations() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<Integer> courseIds = new ArrayList<>();
+		List<Integer> professorIds = new ArrayList<>();
+		for (int i = 0; i < COURSES_PER_STUDENT; i++) {
+			Course course = new Course();
+			course.setCourse("CST82" + (70 + i), "Course " + i, 2022, "AUTUMN", 3, (byte) 0);
+			em.persist(course);
+			courseIds.add(course.getId());
+			Professor professor = new Professor();
+			professor.setProfessor("First" + i, "Last" + i, "ICT");
+			em.persist(professor);
+			professorIds.add(professor.getId());
+		}
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+				CourseRegistration registration = new CourseRegistration();
+				registration.setStudent(student);
+				registration.setCourse(em.getReference(Course.class, courseIds.get(c)));
+				// every other registration without professor nor grade
+				if ((i + c) % 2 == 0) {
+					registration.setProfessor(em.getReference(Professor.class, professorIds.get(c)));
+					registration.setLetterGrade("A");
+				}
+				em.persist(registration);
+			}
+			if ((i + 1) % (PojoBase.ID_ALLOCATION_SIZE / COURSES_PER_STUDENT) == 0) {
+				em.flush();
+				em.clear();
+			}
+		}
+		et.commit();
+		em.close();
+	}
+}
@@ -0,0 +1,90 @@
+package acmecollege.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import acmecollege.entity.Student;
+import acmecollege.entity.Student_;
+import acmecollege.query.QueryTemplates;
+import common.BenchmarkBase;
+
+/**
+ * The by-id query of the tests (<code>SELECT s FROM Student s WHERE s.id = :id</code>) created:
+ * <ul>
+ * <li>from a Criteria query built on every call, the way the tests did before {@link QueryTemplates}</li>
+ * <li>from a {@link QueryTemplates}, cold:  a new one for every call, so the Criteria query is built every time as
+ * well and its JPQL kept for nothing</li>
+ * <li>from a {@link QueryTemplates}, warm:  one for all calls, the Criteria query is built once</li>
+ * </ul>
+ * Reports calls/sec for creating and binding the query alone, then with its execution (H2, one row).  In every case
+ * Hibernate finds the translation to SQL in its query plan cache, the JPQL rendered from the Criteria query is always
+ * the same.
+ * <p>
+ * Settings (system properties): benchmark.calls (default 20000), benchmark.warmup, benchmark.runs
+ */
+public class QueryTemplateBenchmark extends BenchmarkBase {
+
+	private static final int CALLS = Integer.getInteger("benchmark.calls", 20_000);
+
+	private static final int STUDENTS = 100;
+
+	private static final QueryTemplates WARM = new QueryTemplates();
+
+	private interface ByIdQuery {
+		TypedQuery<Student> create(EntityManager em, Integer id);
+	}
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			List<Integer> ids = insertStudents(STUDENTS);
+			EntityManager em = getEntityManager();
+			Map<String, ByIdQuery> variants = new LinkedHashMap<>();
+			variants.put("Criteria per call", QueryTemplateBenchmark::criteria);
+			variants.put("template, cold",
+				(manager, id) -> new QueryTemplates().withAttribute(manager, Student.class, Student_.id, id));
+			variants.put("template, warm", (manager, id) -> WARM.withAttribute(manager, Student.class, Student_.id, id));
+			// JIT-compile the code of every variant first, otherwise the first one measured pays for most of it
+			for (int i = 0; i < WARMUP_RUNS; i++) {
+				variants.values().forEach(byId -> calls(em, ids, byId, TypedQuery::getSingleResult));
+			}
+			variants.forEach((label, byId) -> measure(label, em, ids, byId));
+			em.close();
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static TypedQuery<Student> criteria(EntityManager em, Integer id) {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<Student> query = builder.createQuery(Student.class);
+		Root<Student> root = query.from(Student.class);
+		query.select(root);
+		query.where(builder.equal(root.get(Student_.id), builder.parameter(Integer.class, "id")));
+		return em.createQuery(query).setParameter("id", id);
+	}
+
+	private static void measure(String label, EntityManager em, List<Integer> ids, ByIdQuery byId) {
+		long createNanos = bestOf(run -> calls(em, ids, byId, Function.identity()));
+		long executeNanos = bestOf(run -> calls(em, ids, byId, TypedQuery::getSingleResult));
+		LOG.info("{}: {} calls/sec created, {} calls/sec executed", label,
+			String.format("%.0f", perSecond(CALLS, createNanos)), String.format("%.0f", perSecond(CALLS, executeNanos)));
+	}
+
+	private static void calls(EntityManager em, List<Integer> ids, ByIdQuery byId,
+		Function<TypedQuery<Student>, ?> use) {
+		for (int i = 0; i < CALLS; i++) {
+			use.apply(byId.create(em, ids.get(i % ids.size())));
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package acmecollege.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+
+import acmecollege.entity.ClubMembership;
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.DurationAndStatus;
+import acmecollege.entity.MembershipCard;
+import acmecollege.entity.NonAcademicStudentClub;
+import acmecollege.entity.StudentClub;
+import acmecollege.entity.Student;
+import acmecollege.query.ReadOnlyEntityManagers;
+import common.BenchmarkBase;
+
+/**
+ * A reporting walk (every {@link CourseRegistration}, {@link ClubMembership} and {@link MembershipCard}, with what they
+ * load eagerly) in a regular {@link EntityManager} against a {@link ReadOnlyEntityManagers} one.<br>
+ * Reports the heap retained per entity of the persistence context and the time of a flush of that persistence context
+ * (nothing changed, so the flush is the dirty check alone), then the time of the whole walk in a transaction.
+ * <p>
+ * Settings (system properties): benchmark.students (default 2000, each with a registration, a membership and a card),
+ * benchmark.warmup, benchmark.runs
+ */
+public class ReadOnlyBenchmark extends BenchmarkBase {
+
+	private static final int STUDENTS = Integer.getInteger("benchmark.students", 2_000);
+
+	private static final int COURSES_AND_CLUBS = 5;
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		ReadOnlyEntityManagers readOnly = new ReadOnlyEntityManagers(emf);
+		try {
+			deleteAllData();
+			createData();
+			measure("regular", BenchmarkBase::getEntityManager);
+			measure("read-only", readOnly::createEntityManager);
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static void measure(String label, Supplier<EntityManager> entityManagers) {
+		// Heap per entity and flush time, on one loaded persistence context
+		emf.getCache().evictAll();
+		long before = usedHeap();
+		EntityManager em = entityManagers.get();
+		em.getTransaction().begin();
+		walk(em);
+		long retained = usedHeap() - before;
+		int entities = em.unwrap(Session.class).getStatistics().getEntityCount();
+		long flushNanos = bestOf(run -> em.flush());
+		em.getTransaction().rollback();
+		em.close();
+
+		long walkNanos = bestOf(run -> {
+			EntityManager walking = entityManagers.get();
+			EntityTransaction et = walking.getTransaction();
+			et.begin();
+			walk(walking);
+			et.commit();
+			walking.close();
+		});
+		LOG.info("{}: {} entities, ~{} bytes retained per entity, flush {} ms, walk + commit {} ms", label, entities,
+			retained / Math.max(entities, 1), String.format("%.2f", millis(flushNanos)),
+			String.format("%.1f", millis(walkNanos)));
+	}
+
+	private static void walk(EntityManager em) {
+		for (Class<?> type : List.of(CourseRegistration.class, ClubMembership.class, MembershipCard.class)) {
+			getAll(em, type);
+		}
+	}
+
+	private static void createData() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<Course> courses = new ArrayList<>();
+		List<StudentClub> clubs = new ArrayList<>();
+		for (int i = 0; i < COURSES_AND_CLUBS; i++) {
+			Course course = new Course();
+			course.setCourse("CST82" + (70 + i), "Course " + i, 2022, "AUTUMN", 3, (byte) 0);
+			em.persist(course);
+			courses.add(course);
+			StudentClub club = new NonAcademicStudentClub();
+			club.setName("Club " + i);
+			em.persist(club);
+			clubs.add(club);
+		}
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			CourseRegistration registration = new CourseRegistration();
+			registration.setStudent(student);
+			registration.setCourse(courses.get(i % COURSES_AND_CLUBS));
+			registration.setLetterGrade("A");
+			em.persist(registration);
+			DurationAndStatus duration = new DurationAndStatus();
+			duration.setDurationAndStatus(LocalDateTime.of(2022, 8, 28, 0, 0), LocalDateTime.of(2023, 8, 27, 0, 0),
+				"+");
+			ClubMembership membership = new ClubMembership();
+			membership.setDurationAndStatus(duration);
+			membership.setStudentClub(clubs.get(i % COURSES_AND_CLUBS));
+			em.persist(membership);
+			MembershipCard card = new MembershipCard();
+			card.setOwner(student);
+			card.setSigned(true);
+			card.setClubMembership(membership);
+			em.persist(card);
+		}
+		et.commit();
+		em.close();
+	}
+}
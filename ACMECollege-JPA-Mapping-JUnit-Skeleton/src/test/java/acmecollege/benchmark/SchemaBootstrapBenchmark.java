@@ -0,0 +1,40 @@
+package acmecollege.benchmark;
+
+import acmecollege.schema.SchemaFingerprint;
+import common.BenchmarkBase;
+
+/**
+ * Start-up time of the {@link javax.persistence.EntityManagerFactory}, what every test class pays in
+ * JUnitBase.setupAll:  drop-and-create of the schema from the scripts as configured in persistence.xml, against the
+ * {@link SchemaFingerprint} mode, where the scripts are skipped as long as the schema is unchanged.<br>
+ * The two are run in turns, so neither gets the benefit of a warmer JIT.
+ * <p>
+ * Settings (system properties): benchmark.warmup, benchmark.runs
+ */
+public class SchemaBootstrapBenchmark extends BenchmarkBase {
+
+	public static void main(String[] args) {
+		long dropAndCreate = Long.MAX_VALUE;
+		long fingerprint = Long.MAX_VALUE;
+		for (int i = -WARMUP_RUNS; i < MEASURED_RUNS; i++) {
+			long nanos = boot(false);
+			dropAndCreate = i < 0 ? dropAndCreate : Math.min(dropAndCreate, nanos);
+			nanos = boot(true);
+			fingerprint = i < 0 ? fingerprint : Math.min(fingerprint, nanos);
+		}
+		LOG.info("drop-and-create: EntityManagerFactory ready in {} ms", String.format("%.1f", millis(dropAndCreate)));
+		LOG.info("fingerprint: EntityManagerFactory ready in {} ms", String.format("%.1f", millis(fingerprint)));
+	}
+
+	/**
+	 * @return Time to build the EntityManagerFactory, in nanoseconds
+	 */
+	private static long boot(boolean fingerprint) {
+		System.setProperty(SchemaFingerprint.SYSTEM_PROPERTY, String.valueOf(fingerprint));
+		long start = System.nanoTime();
+		emf = buildEMF();
+		long nanos = System.nanoTime() - start;
+		emf.close();
+		return nanos;
+	}
+}
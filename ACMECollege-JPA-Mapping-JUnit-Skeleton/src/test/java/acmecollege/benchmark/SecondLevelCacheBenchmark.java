@@ -0,0 +1,88 @@
+package acmecollege.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.Professor;
+import acmecollege.metrics.MetricsRegistry;
+import acmecollege.metrics.PersistenceMetrics;
+import common.BenchmarkBase;
+
+/**
+ * Repeated-lookup workload on the cached reference entities:  every lookup is a new {@link EntityManager} (like a
+ * request in a web app) doing an <code>em.find</code> of a {@link Course} and a {@link Professor}, so the
+ * persistence context never helps.  The workload is run with the second-level cache off and on, and the number of
+ * JDBC statements (round trips) and elapsed time are reported for both.
+ * <p>
+ * Settings (system properties): benchmark.entities (default 100), benchmark.lookups (default 10000),
+ * benchmark.warmup, benchmark.runs
+ */
+public class SecondLevelCacheBenchmark extends BenchmarkBase {
+
+	private static final int ENTITIES = Integer.getInteger("benchmark.entities", 100);
+
+	private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 10_000);
+
+	public static void main(String[] args) {
+		run(false);
+		run(true);
+	}
+
+	private static void run(boolean cacheEnabled) {
+		emf = buildEMF(persistenceUnit(), Map.of("hibernate.cache.use_second_level_cache", String.valueOf(cacheEnabled),
+			"hibernate.generate_statistics", "true"));
+		try {
+			deleteAllData();
+			List<Integer> courseIds = new ArrayList<>();
+			List<Integer> professorIds = new ArrayList<>();
+			createReferenceData(courseIds, professorIds);
+
+			Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+			long[] statements = new long[1];
+			long nanos = bestOf(run -> {
+				statistics.clear();
+				for (int i = 0; i < LOOKUPS; i++) {
+					EntityManager em = getEntityManager();
+					em.find(Course.class, courseIds.get(i % ENTITIES));
+					em.find(Professor.class, professorIds.get(i % ENTITIES));
+					em.close();
+				}
+				statements[0] = statistics.getPrepareStatementCount();
+			});
+
+			LOG.info("L2 cache {}: {} lookups in {} ms ({} lookups/sec), {} JDBC statements in the last run",
+				cacheEnabled ? "on" : "off", LOOKUPS, String.format("%.1f", millis(nanos)),
+				String.format("%.0f", perSecond(LOOKUPS, nanos)), statements[0]);
+			new PersistenceMetrics(emf, MetricsRegistry.NONE).log();
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static void createReferenceData(List<Integer> courseIds, List<Integer> professorIds) {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		for (int i = 0; i < ENTITIES; i++) {
+			Course course = new Course();
+			course.setCourse(String.format("CST%04d", i), "Course " + i, 2022, "AUTUMN", 3, (byte) 0);
+			em.persist(course);
+			Professor professor = new Professor();
+			professor.setProfessor("First" + i, "Last" + i, "Information and Communications Technology");
+			em.persist(professor);
+			courseIds.add(course.getId());
+			professorIds.add(professor.getId());
+		}
+		et.commit();
+		em.close();
+	}
+}
@@ -0,0 +1,140 @@
+package acmecollege.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.boot.archive.scan.internal.DisabledScanner;
+import org.hibernate.boot.archive.scan.internal.StandardScanner;
+import org.hibernate.boot.archive.scan.spi.ScanEnvironment;
+import org.hibernate.boot.archive.scan.spi.ScanOptions;
+import org.hibernate.boot.archive.scan.spi.ScanParameters;
+import org.hibernate.boot.archive.scan.spi.ScanResult;
+import org.hibernate.boot.archive.scan.spi.Scanner;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.internal.ParsedPersistenceXmlDescriptor;
+import org.hibernate.jpa.boot.internal.PersistenceXmlParser;
+
+import acmecollege.ACMECollegeDriver;
+import acmecollege.boot.FastBoot;
+import acmecollege.boot.ManagedClassIndex;
+import common.BenchmarkBase;
+
+/**
+ * Start-up time of the {@link EntityManagerFactory} of {@link ACMECollegeDriver} (acmecollege-PU, the classes are
+ * found by scanning), split in phases:
+ * <ul>
+ * <li>parse:  persistence.xml, and for fast boot the list of managed classes</li>
+ * <li>scan:  discovery of the managed classes on the classpath</li>
+ * <li>mapping:  service registry and Hibernate's Metadata, built from the annotations</li>
+ * <li>session factory:  persisters, connection pool, second-level cache</li>
+ * </ul>
+ * The first start-up of the JVM, which is what a batch job pays, includes the loading of the Hibernate classes:  run
+ * the benchmark once with and once without {@link FastBoot} (-Dacmecollege.boot.fast=true) to compare, and with the
+ * class data archive described in FastBoot.  The start-ups after it are reported too (best of, per phase).
+ * <p>
+ * The JDBC settings point to an embedded H2 DB and schema generation is off, only Hibernate's own work is measured.
+ * <p>
+ * Settings (system properties): acmecollege.boot.fast, benchmark.warmup, benchmark.runs
+ */
+public class StartupPhasesBenchmark extends BenchmarkBase {
+
+	private static final String[] PHASES = { "parse", "scan", "mapping", "session factory" };
+
+	private static final Map<String, Object> EMBEDDED_DB = Map.of(
+		AvailableSettings.JPA_JDBC_URL, "jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		AvailableSettings.JPA_JDBC_DRIVER, "org.h2.Driver",
+		AvailableSettings.JPA_JDBC_USER, "sa",
+		AvailableSettings.JPA_JDBC_PASSWORD, "",
+		AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect",
+		AvailableSettings.HBM2DDL_DATABASE_ACTION, "none");
+
+	public static void main(String[] args) {
+		String mode = FastBoot.isEnabled() ? "fast boot" : "default boot";
+		report(mode + ", first start-up", boot());
+		long[] best = new long[PHASES.length];
+		Arrays.fill(best, Long.MAX_VALUE);
+		for (int i = -WARMUP_RUNS; i < MEASURED_RUNS; i++) {
+			long[] phases = boot();
+			for (int p = 0; i >= 0 && p < phases.length; p++) {
+				best[p] = Math.min(best[p], phases[p]);
+			}
+		}
+		report(mode + ", next start-ups", best);
+	}
+
+	/**
+	 * Build the EntityManagerFactory of acmecollege-PU the way {@link FastBoot} does, or
+	 * {@link javax.persistence.Persistence} if fast boot is off
+	 *
+	 * @return Time of each phase, in nanoseconds
+	 */
+	private static long[] boot() {
+		long[] phases = new long[PHASES.length];
+		long start = System.nanoTime();
+		ParsedPersistenceXmlDescriptor unit;
+		Map<String, Object> settings = new HashMap<>();
+		if (FastBoot.isEnabled()) {
+			unit = FastBoot.descriptor(ACMECollegeDriver.PERSISTENCE_UNIT, ManagedClassIndex.read());
+			settings.putAll(FastBoot.settings(unit, EMBEDDED_DB));
+			settings.put(AvailableSettings.SCANNER, new TimedScanner(new DisabledScanner(), phases));
+		} else {
+			unit = PersistenceXmlParser.locatePersistenceUnits(Map.of()).stream()
+				.filter(descriptor -> descriptor.getName().equals(ACMECollegeDriver.PERSISTENCE_UNIT))
+				.findFirst()
+				.orElseThrow();
+			settings.putAll(EMBEDDED_DB);
+			settings.put(AvailableSettings.SCANNER, new TimedScanner(new StandardScanner(), phases));
+		}
+		phases[0] = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		// Also builds the Metadata, the scan is timed on its own by TimedScanner
+		EntityManagerFactoryBuilderImpl builder = new EntityManagerFactoryBuilderImpl(unit, settings);
+		phases[2] = System.nanoTime() - start - phases[1];
+
+		start = System.nanoTime();
+		EntityManagerFactory factory = builder.build();
+		phases[3] = System.nanoTime() - start;
+		factory.close();
+		return phases;
+	}
+
+	/**
+	 * Adds the time of the scan to the 'scan' phase
+	 */
+	private static final class TimedScanner implements Scanner {
+
+		private final Scanner scanner;
+
+		private final long[] phases;
+
+		private TimedScanner(Scanner scanner, long[] phases) {
+			this.scanner = scanner;
+			this.phases = phases;
+		}
+
+		@Override
+		public ScanResult scan(ScanEnvironment environment, ScanOptions options, ScanParameters parameters) {
+			long start = System.nanoTime();
+			try {
+				return scanner.scan(environment, options, parameters);
+			} finally {
+				phases[1] += System.nanoTime() - start;
+			}
+		}
+	}
+
+	private static void report(String label, long[] phases) {
+		StringBuilder line = new StringBuilder();
+		long total = 0;
+		for (int p = 0; p < PHASES.length; p++) {
+			line.append(String.format("%s %.1f ms, ", PHASES[p], millis(phases[p])));
+			total += phases[p];
+		}
+		LOG.info("{}: {}total {} ms", label, line, String.format("%.1f", millis(total)));
+	}
+}
@@ -0,0 +1,67 @@
+package acmecollege.benchmark;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import acmecollege.entity.Student;
+import acmecollege.metrics.MetricsRegistry;
+import acmecollege.metrics.PersistenceMetrics;
+import common.BenchmarkBase;
+
+/**
+ * Cost of Hibernate's statistics, the source of {@link PersistenceMetrics}:  the same request-like unit of work (a
+ * new {@link EntityManager}, an <code>em.find</code> and a JPQL query in a transaction) is timed with the statistics
+ * off and on.  The two settings alternate on the same {@link javax.persistence.EntityManagerFactory} so both see the
+ * same JIT and DB state.
+ * <p>
+ * Settings (system properties): benchmark.students (default 100), benchmark.requests (default 5000),
+ * benchmark.warmup, benchmark.runs
+ */
+public class StatisticsOverheadBenchmark extends BenchmarkBase {
+
+	private static final int STUDENTS = Integer.getInteger("benchmark.students", 100);
+
+	private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5_000);
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			List<Integer> studentIds = insertStudents(STUDENTS);
+			Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+			long[] best = { Long.MAX_VALUE, Long.MAX_VALUE };
+			for (int round = 0; round < 3; round++) {
+				statistics.setStatisticsEnabled(false);
+				best[0] = Math.min(best[0], bestOf(run -> requests(studentIds)));
+				PersistenceMetrics metrics = new PersistenceMetrics(emf, MetricsRegistry.NONE);
+				best[1] = Math.min(best[1], bestOf(run -> requests(studentIds)));
+				metrics.close();
+			}
+			LOG.info("Statistics off: {} requests in {} ms ({} requests/sec)", REQUESTS,
+				String.format("%.1f", millis(best[0])), String.format("%.0f", perSecond(REQUESTS, best[0])));
+			LOG.info("Statistics on:  {} requests in {} ms ({} requests/sec), overhead {}%", REQUESTS,
+				String.format("%.1f", millis(best[1])), String.format("%.0f", perSecond(REQUESTS, best[1])),
+				String.format("%.1f", 100d * (best[1] - best[0]) / best[0]));
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	private static void requests(List<Integer> studentIds) {
+		for (int i = 0; i < REQUESTS; i++) {
+			EntityManager em = getEntityManager();
+			EntityTransaction et = em.getTransaction();
+			et.begin();
+			em.find(Student.class, studentIds.get(i % STUDENTS));
+			em.createNamedQuery("Student.findAll", Student.class).setMaxResults(10).getResultList();
+			et.commit();
+			em.close();
+		}
+	}
+}
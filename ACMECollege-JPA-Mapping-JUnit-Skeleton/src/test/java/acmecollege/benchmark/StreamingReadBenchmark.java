@@ -0,0 +1,109 @@
+package acmecollege.benchmark;
+
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Student;
+import acmecollege.query.StreamingReader;
+import common.BenchmarkBase;
+
+/**
+ * Heap used to read a whole table of {@link Student} against its row count:  the <code>Student.findAll</code> named
+ * query (<code>getResultList()</code>) against the keyset and cursor streams of {@link StreamingReader}, with their
+ * default page, fetch and clear sizes.  Each read touches every row (sum of the ids).<br>
+ * Reports latency and the heap retained when the last row has been read, before the {@link EntityManager} is closed:
+ * the list and the persistence context, or what is left since the last clear.
+ * <p>
+ * Settings (system properties): benchmark.rows (default 10000,50000,100000), benchmark.warmup, benchmark.runs
+ */
+public class StreamingReadBenchmark extends BenchmarkBase {
+
+	private static final int[] ROWS = Arrays.stream(System.getProperty("benchmark.rows", "10000,50000,100000")
+		.split(",")).mapToInt(rows -> Integer.parseInt(rows.trim())).sorted().toArray();
+
+	public static void main(String[] args) {
+		emf = buildEMF();
+		try {
+			deleteAllData();
+			int created = 0;
+			for (int rows : ROWS) {
+				insertStudents(rows - created);
+				created = rows;
+				measure("findAll getResultList", rows, em -> {
+					List<Student> students = em.createNamedQuery("Student.findAll", Student.class).getResultList();
+					long sum = students.stream().mapToLong(PojoBase::getId).sum();
+					atEnd(students);
+					return sum;
+				});
+				measure("keyset stream", rows, em -> {
+					return new StreamingReader(em).streamByKeyset(Student.class).peek(atLastRow(rows))
+						.mapToLong(PojoBase::getId).sum();
+				});
+				measure("cursor stream", rows, em -> {
+					try (Stream<Student> students = new StreamingReader(em).streamWithCursor(Student.class)) {
+						return students.peek(atLastRow(rows)).mapToLong(PojoBase::getId).sum();
+					}
+				});
+			}
+		} finally {
+			deleteAllData();
+			emf.close();
+		}
+	}
+
+	/**
+	 * Used heap at the end of the read, set by {@link #atEnd(Object)} when measuring
+	 */
+	private static long usedAtEnd;
+	private static boolean measuring;
+
+	/**
+	 * @param read - reads the table, returns the sum of the ids and calls {@link #atEnd(Object)} at the last row
+	 */
+	private static void measure(String label, int rows, ToLongFunction<EntityManager> read) {
+		long nanos = bestOf(run -> {
+			EntityManager em = getEntityManager();
+			read.applyAsLong(em);
+			em.close();
+		});
+		measuring = true;
+		EntityManager em = getEntityManager();
+		long before = usedHeap();
+		read.applyAsLong(em);
+		em.close();
+		measuring = false;
+		LOG.info("{} rows, {}: {} ms ({} rows/sec), ~{} KB retained", rows, label,
+			String.format("%.1f", millis(nanos)), String.format("%.0f", perSecond(rows, nanos)),
+			(usedAtEnd - before) / 1024);
+	}
+
+	/**
+	 * @param reachable - what the read still references after its last row
+	 */
+	private static void atEnd(Object reachable) {
+		if (measuring) {
+			usedAtEnd = usedHeap();
+			Reference.reachabilityFence(reachable);
+		}
+	}
+
+	/**
+	 * @return Calls {@link #atEnd(Object)} at the last row of a stream, before the stream reads past it (and clears
+	 *         the persistence context one last time)
+	 */
+	private static Consumer<Student> atLastRow(int rows) {
+		int[] read = { 0 };
+		return student -> {
+			if (++read[0] == rows) {
+				atEnd(student);
+			}
+		};
+	}
+}
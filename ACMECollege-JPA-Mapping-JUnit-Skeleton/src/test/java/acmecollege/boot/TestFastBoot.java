@@ -0,0 +1,103 @@
+package acmecollege.boot;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.ManagedType;
+
+import org.hibernate.boot.archive.scan.internal.DisabledScanner;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.ParsedPersistenceXmlDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.ACMECollegeDriver;
+import acmecollege.entity.Student;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestFastBoot extends JUnitBase {
+
+	private final String enabledBefore = System.getProperty(FastBoot.SYSTEM_PROPERTY);
+
+	@AfterEach
+	void tearDown() {
+		if (enabledBefore == null) {
+			System.clearProperty(FastBoot.SYSTEM_PROPERTY);
+		} else {
+			System.setProperty(FastBoot.SYSTEM_PROPERTY, enabledBefore);
+		}
+	}
+
+	private static Set<String> managedTypes(EntityManagerFactory factory) {
+		return factory.getMetamodel().getManagedTypes().stream()
+			.map(ManagedType::getJavaType)
+			.map(Class::getName)
+			.collect(Collectors.toSet());
+	}
+
+	@Test
+	void test01_ListWrittenByTheBuild() throws IOException, URISyntaxException {
+		Path classes = Paths.get(Student.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		List<String> managedClasses = ManagedClassIndex.read();
+		assertThat(managedClasses, is(not(List.of())));
+		assertThat(ManagedClassIndex.find(classes), equalTo(managedClasses));
+		assertThat(managedClasses, hasItems(managedTypes(emf).toArray(String[]::new)));
+	}
+
+	@Test
+	void test02_ListedClassesInsteadOfScan() {
+		List<String> managedClasses = ManagedClassIndex.read();
+		ParsedPersistenceXmlDescriptor unit = FastBoot.descriptor(ACMECollegeDriver.PERSISTENCE_UNIT, managedClasses);
+		assertThat(unit.isExcludeUnlistedClasses(), is(true));
+		assertThat(unit.getManagedClassNames(), equalTo(managedClasses));
+
+		Map<String, Object> settings = FastBoot.settings(unit, Map.of());
+		assertThat(settings, hasEntry(AvailableSettings.SCANNER, DisabledScanner.class.getName()));
+		assertThat(settings, hasEntry(AvailableSettings.XML_MAPPING_ENABLED, "false"));
+	}
+
+	@Test
+	void test03_MappingFilesAreKept() {
+		ParsedPersistenceXmlDescriptor unit = FastBoot.descriptor(persistenceUnit(), ManagedClassIndex.read());
+		Map<String, Object> settings = FastBoot.settings(unit,
+			Map.of("hibernate.ejb.xml_files", List.of("META-INF/orm-identity.xml")));
+		assertThat(settings.containsKey(AvailableSettings.XML_MAPPING_ENABLED), is(false));
+	}
+
+	@Test
+	void test04_SameMappingAsScan() {
+		System.setProperty(FastBoot.SYSTEM_PROPERTY, "true");
+		// acmecollege-PU on the embedded DB, without second-level cache:  its regions are already used by
+		// JUnitBase.emf
+		EntityManagerFactory fast = FastBoot.createEntityManagerFactory(ACMECollegeDriver.PERSISTENCE_UNIT, Map.of(
+			AvailableSettings.JPA_JDBC_URL, "jdbc:h2:mem:fastboot;MODE=MySQL;DB_CLOSE_DELAY=-1",
+			AvailableSettings.JPA_JDBC_DRIVER, "org.h2.Driver",
+			AvailableSettings.JPA_JDBC_USER, "sa",
+			AvailableSettings.JPA_JDBC_PASSWORD, "",
+			AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect",
+			AvailableSettings.HBM2DDL_DATABASE_ACTION, "none",
+			AvailableSettings.USE_SECOND_LEVEL_CACHE, "false"));
+		try {
+			assertThat(managedTypes(fast), equalTo(managedTypes(emf)));
+		} finally {
+			fast.close();
+		}
+	}
+}
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import common.JUnitBase;
+import common.SqlBudget;
 
 @TestMethodOrder(MethodOrderer.MethodName.class)
 public class TestCRUDCourseOriginal extends JUnitBase {
@@ -52,7 +53,6 @@ public class TestCRUDCourseOriginal extends JUnitBase {
 
 	@AfterEach
 	void tearDown() {
-		JUnitBase.deleteAllData();
 		em.close();
 	}
 
@@ -84,6 +84,7 @@ public class TestCRUDCourseOriginal extends JUnitBase {
 	}
 
 	@Test
+	@SqlBudget(selects = 1)
 	void test04_Read() {
 		
 		et.begin();
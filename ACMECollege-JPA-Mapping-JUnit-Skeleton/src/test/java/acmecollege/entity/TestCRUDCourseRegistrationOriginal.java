@@ -27,8 +27,12 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import common.DataIsolation;
+import common.DataIsolation.Mode;
 import common.JUnitBase;
 
+// The tests build on the registration created by test02_Create
+@DataIsolation(Mode.NONE)
 @TestMethodOrder(MethodOrderer.MethodName.class)
 public class TestCRUDCourseRegistrationOriginal extends JUnitBase {
 
@@ -164,6 +168,8 @@ public class TestCRUDCourseRegistrationOriginal extends JUnitBase {
 		assertThat(returnedCourseRegistration.getNumericGrade(), equalTo(NUMERIC_GRADE));
 		assertThat(returnedCourseRegistration.getCourse(), equalTo(course));
 		assertThat(returnedCourseRegistration.getProfessor(), equalTo(professor));
+		// The registration, then the student (loaded by equals);  course and professor come from the second-level cache
+		assertSelectCount(2);
 	}
 
 	@Test
@@ -61,7 +61,6 @@ public class TestCRUDMembershipCardOriginal extends JUnitBase {
 
 	@AfterEach
 	void tearDown() {
-		JUnitBase.deleteAllData();
 		em.close();
 	}
 
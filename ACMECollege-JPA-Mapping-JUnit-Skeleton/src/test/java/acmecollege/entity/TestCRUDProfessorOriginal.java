@@ -62,7 +62,6 @@ public class TestCRUDProfessorOriginal extends JUnitBase {
 
 	@AfterEach
 	void tearDown() {
-		JUnitBase.deleteAllData();
 		em.close();
 	}
 
@@ -51,7 +51,6 @@ public class TestCRUDStudentOriginal extends JUnitBase {
 	void setup() {
 		em = getEntityManager();
 		et = em.getTransaction();
-		JUnitBase.deleteAllData();
 	}
 
 	@AfterEach
@@ -133,6 +132,7 @@ public class TestCRUDStudentOriginal extends JUnitBase {
 		card.setClubMembership(membership);
 		em.persist(card);
 		et.commit();
+		resetSqlStatements();
 		
 		CriteriaBuilder builder = em.getCriteriaBuilder();
 		CriteriaQuery<Student> query = builder.createQuery(Student.class);
@@ -149,6 +149,9 @@ public class TestCRUDStudentOriginal extends JUnitBase {
 		assertThat(returnedStudent.getLastName(), equalTo("Smith"));
 		assertThat(returnedStudent.getMembershipCards(), contains(equalTo(card)));
 		assertThat(returnedStudent.getCourseRegistrations(), contains(equalTo(cr1)));
+		// The dependencies are already in the persistence context, only the student is read
+		assertSelectCount(1);
+		assertNoNPlusOne();
 	}
 
 	@Test
@@ -0,0 +1,187 @@
+package acmecollege.entity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import common.JUnitBase;
+
+/**
+ * The relationship setters must not load an inverse collection that is not in memory yet, but must keep a loaded one
+ * up to date.
+ */
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestRelationshipManagement extends JUnitBase {
+
+	private static final int REGISTRATIONS = 5;
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	private int courseId;
+	private int studentId;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+
+		et.begin();
+		Course course = new Course();
+		course.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		em.persist(course);
+		for (int i = 0; i < REGISTRATIONS; i++) {
+			Student student = new Student();
+			student.setFullName("John" + i, "Smith");
+			em.persist(student);
+			CourseRegistration cr = new CourseRegistration();
+			cr.setStudent(student);
+			cr.setCourse(course);
+			em.persist(cr);
+		}
+		ClubMembership membership = membership("Computer Programming Club");
+		Student owner = new Student();
+		owner.setFullName("Jane", "Doe");
+		em.persist(owner);
+		MembershipCard card = new MembershipCard();
+		card.setOwner(owner);
+		card.setClubMembership(membership);
+		card.setSigned(true);
+		em.persist(card);
+		et.commit();
+		courseId = course.getId();
+		studentId = owner.getId();
+		em.close();
+
+		emf.getCache().evictAll();
+		em = getEntityManager();
+		et = em.getTransaction();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	private ClubMembership membership(String clubName) {
+		StudentClub club = new AcademicStudentClub();
+		club.setName(clubName);
+		DurationAndStatus ds = new DurationAndStatus();
+		ds.setDurationAndStatus(LocalDateTime.of(2022, 8, 28, 0, 0), LocalDateTime.of(2023, 8, 27, 0, 0), "+");
+		ClubMembership membership = new ClubMembership();
+		membership.setDurationAndStatus(ds);
+		membership.setStudentClub(club);
+		em.persist(membership);
+		return membership;
+	}
+
+	private CourseRegistration register(Course course) {
+		Student student = new Student();
+		student.setFullName("Jack", "Jackson");
+		em.persist(student);
+		CourseRegistration cr = new CourseRegistration();
+		cr.setStudent(student);
+		cr.setCourse(course);
+		em.persist(cr);
+		return cr;
+	}
+
+	@Test
+	void test01_UnloadedCollectionStaysUnloaded() {
+		Course course = em.find(Course.class, courseId);
+
+		et.begin();
+		register(course);
+		assertFalse(Hibernate.isInitialized(course.getCourseRegistrations()));
+		et.commit();
+
+		// The new registration is in the DB, so it is part of the collection the next time it is loaded
+		assertThat(course.getCourseRegistrations(), hasSize(REGISTRATIONS + 1));
+	}
+
+	@Test
+	void test02_ProxyIsNotInitialized() {
+		Course course = em.getReference(Course.class, courseId);
+
+		et.begin();
+		register(course);
+		assertFalse(Hibernate.isInitialized(course));
+		et.commit();
+
+		em.clear();
+		assertThat(em.find(Course.class, courseId).getCourseRegistrations(), hasSize(REGISTRATIONS + 1));
+	}
+
+	@Test
+	void test03_LoadedCollectionIsUpdated() {
+		Course course = em.find(Course.class, courseId);
+		Hibernate.initialize(course.getCourseRegistrations());
+
+		et.begin();
+		CourseRegistration cr = register(course);
+		et.commit();
+
+		assertTrue(Hibernate.isInitialized(course.getCourseRegistrations()));
+		assertThat(course.getCourseRegistrations(), hasSize(REGISTRATIONS + 1));
+		assertThat(course.getCourseRegistrations(), hasItem(cr));
+	}
+
+	@Test
+	void test04_NewEntityIsUpdated() {
+		Course course = new Course();
+		course.setCourse("CST8284", "Object-Oriented Programming in Java", 2022, "SUMMER", 3, (byte) 1);
+
+		et.begin();
+		CourseRegistration cr = register(course);
+		et.commit();
+
+		assertThat(course.getCourseRegistrations(), hasItem(cr));
+	}
+
+	@Test
+	void test05_StudentCollectionsStayUnloaded() {
+		Student student = em.find(Student.class, studentId);
+		Course course = em.find(Course.class, courseId);
+
+		et.begin();
+		CourseRegistration cr = new CourseRegistration();
+		cr.setStudent(student);
+		cr.setCourse(course);
+		em.persist(cr);
+		assertFalse(Hibernate.isInitialized(student.getCourseRegistrations()));
+		et.commit();
+
+		assertThat(student.getCourseRegistrations(), hasItem(cr));
+	}
+
+	@Test
+	void test06_MembershipCardOwnerCollectionStaysUnloaded() {
+		Student owner = em.find(Student.class, studentId);
+
+		et.begin();
+		ClubMembership membership = membership("Student Hiking Club");
+		MembershipCard card = new MembershipCard();
+		card.setOwner(owner);
+		card.setClubMembership(membership);
+		card.setSigned(false);
+		em.persist(card);
+		assertFalse(Hibernate.isInitialized(owner.getMembershipCards()));
+		et.commit();
+
+		assertThat(owner.getMembershipCards(), hasSize(2));
+	}
+}
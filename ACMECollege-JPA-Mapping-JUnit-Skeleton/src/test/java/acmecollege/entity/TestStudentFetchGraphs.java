@@ -0,0 +1,184 @@
+package acmecollege.entity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import common.JUnitBase;
+
+/**
+ * Query budget of the {@link Student} entity graphs:  loading the student and walking the branch covered by the graph
+ * must not cost more than {@link #GRAPH_BUDGET} JDBC statements, whatever the number of rows in the branch.
+ */
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestStudentFetchGraphs extends JUnitBase {
+
+	private static final int GRAPH_BUDGET = 1;
+
+	private static final int REGISTRATIONS = 3;
+
+	private static Statistics statistics;
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	private Student student;
+
+	@BeforeAll
+	static void setupAllInit() {
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+
+		et.begin();
+		student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		Professor professor = new Professor();
+		professor.setProfessor("Teddy", "Yap", "Information and Communications Technology");
+		for (int i = 0; i < REGISTRATIONS; i++) {
+			Course course = new Course();
+			course.setCourse("CST827" + i, "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+			CourseRegistration cr = new CourseRegistration();
+			cr.setStudent(student);
+			cr.setCourse(course);
+			cr.setProfessor(professor);
+			em.persist(cr);
+
+			StudentClub club = new AcademicStudentClub();
+			club.setName("Club " + i);
+			em.persist(club);
+			DurationAndStatus ds = new DurationAndStatus();
+			ds.setDurationAndStatus(LocalDateTime.of(2022, 8, 28, 0, 0), LocalDateTime.of(2023, 8, 27, 0, 0), "+");
+			ClubMembership membership = new ClubMembership();
+			membership.setDurationAndStatus(ds);
+			membership.setStudentClub(club);
+			em.persist(membership);
+			MembershipCard card = new MembershipCard();
+			card.setOwner(student);
+			card.setSigned(true);
+			card.setClubMembership(membership);
+			em.persist(card);
+		}
+		et.commit();
+		em.close();
+
+		// Start from a cold persistence context and second-level cache so only the fetch plan is measured
+		emf.getCache().evictAll();
+		em = getEntityManager();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	private Map<String, Object> fetchGraph(String name) {
+		return Map.of(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph(name));
+	}
+
+	private static void walkTranscript(Student s) {
+		for (CourseRegistration cr : s.getCourseRegistrations()) {
+			cr.getCourse().getCourseCode();
+			cr.getProfessor().getLastName();
+		}
+	}
+
+	private static void walkMemberships(Student s) {
+		for (MembershipCard card : s.getMembershipCards()) {
+			card.getClubMembership().getStudentClub().getName();
+			card.getClubMembership().getCard().getSigned();
+		}
+	}
+
+	@Test
+	void test01_TranscriptWithoutGraph() {
+		Student returnedStudent = em.find(Student.class, student.getId());
+		walkTranscript(returnedStudent);
+
+		// Baseline:  lazy loading costs one SELECT per course on top of the student and the collection
+		assertThat(statistics.getPrepareStatementCount(), is(greaterThan((long) GRAPH_BUDGET)));
+	}
+
+	@Test
+	void test02_TranscriptGraphFind() {
+		Student returnedStudent = em.find(Student.class, student.getId(), fetchGraph(Student.GRAPH_WITH_TRANSCRIPT));
+		walkTranscript(returnedStudent);
+
+		assertThat(returnedStudent.getCourseRegistrations(), hasSize(REGISTRATIONS));
+		assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo((long) GRAPH_BUDGET)));
+	}
+
+	@Test
+	void test03_TranscriptGraphCriteria() {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<Student> query = builder.createQuery(Student.class);
+		Root<Student> root = query.from(Student.class);
+		query.select(root);
+		query.where(builder.equal(root.get(Student_.id), builder.parameter(Integer.class, "id")));
+		TypedQuery<Student> tq = em.createQuery(query);
+		tq.setParameter("id", student.getId());
+		tq.setHint(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph(Student.GRAPH_WITH_TRANSCRIPT));
+		Student returnedStudent = tq.getSingleResult();
+		walkTranscript(returnedStudent);
+
+		assertThat(returnedStudent.getCourseRegistrations(), hasSize(REGISTRATIONS));
+		assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo((long) GRAPH_BUDGET)));
+	}
+
+	@Test
+	void test04_MembershipsGraphFind() {
+		Student returnedStudent = em.find(Student.class, student.getId(), fetchGraph(Student.GRAPH_WITH_MEMBERSHIPS));
+		walkMemberships(returnedStudent);
+
+		assertThat(returnedStudent.getMembershipCards(), hasSize(REGISTRATIONS));
+		assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo((long) GRAPH_BUDGET)));
+	}
+
+	@Test
+	void test05_MembershipsGraphCriteria() {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<Student> query = builder.createQuery(Student.class);
+		Root<Student> root = query.from(Student.class);
+		query.select(root);
+		query.where(builder.equal(root.get(Student_.id), builder.parameter(Integer.class, "id")));
+		TypedQuery<Student> tq = em.createQuery(query);
+		tq.setParameter("id", student.getId());
+		tq.setHint(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph(Student.GRAPH_WITH_MEMBERSHIPS));
+		Student returnedStudent = tq.getSingleResult();
+		walkMemberships(returnedStudent);
+
+		assertThat(returnedStudent.getMembershipCards(), hasSize(REGISTRATIONS));
+		assertThat(returnedStudent.getFirstName(), equalTo("John"));
+		assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo((long) GRAPH_BUDGET)));
+	}
+}
@@ -0,0 +1,103 @@
+package acmecollege.importer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.CourseRegistrationPK;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestCourseRegistrationImporter extends JUnitBase {
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	private Student student;
+	private Student student2;
+	private Course course;
+	private Professor professor;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+
+		et.begin();
+		student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		student2 = new Student();
+		student2.setFullName("Jack", "Jackson");
+		em.persist(student2);
+		course = new Course();
+		course.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		em.persist(course);
+		professor = new Professor();
+		professor.setProfessor("Teddy", "Yap", "Information and Communications Technology");
+		em.persist(professor);
+		et.commit();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	@Test
+	void test01_ImportValidRows() throws IOException {
+		String csv = "student_id,course_id,professor_id,numeric_grade,letter_grade\n"
+			+ student.getId() + "," + course.getId() + "," + professor.getId() + ",100,A+\n"
+			+ student2.getId() + "," + course.getId() + ",,,\n";
+
+		ImportReport report = new CourseRegistrationImporter(emf).importCsv(new StringReader(csv));
+
+		assertThat(report.getRowsRead(), is(equalTo(2L)));
+		assertThat(report.getRowsInserted(), is(equalTo(2L)));
+		assertThat(report.getRowsRejected(), is(equalTo(0L)));
+		assertThat(JUnitBase.getTotalCount(em, CourseRegistration.class), is(equalTo(2L)));
+
+		CourseRegistration cr = em.find(CourseRegistration.class, new CourseRegistrationPK(student.getId(), course.getId()));
+		assertThat(cr.getLetterGrade(), equalTo("A+"));
+		assertThat(cr.getNumericGrade(), equalTo(100));
+		assertThat(cr.getProfessor().getId(), equalTo(professor.getId()));
+	}
+
+	@Test
+	void test02_RejectInvalidRows() throws IOException {
+		String csv = student.getId() + "," + course.getId() + ",,90,A\n"
+			// not a number
+			+ "abc," + course.getId() + ",,,\n"
+			// unknown student
+			+ "999999," + course.getId() + ",,,\n"
+			// duplicate key
+			+ student.getId() + "," + course.getId() + ",,,\n"
+			+ student2.getId() + "," + course.getId() + ",,75,B\n";
+
+		CourseRegistrationImporter importer = new CourseRegistrationImporter(emf);
+		importer.setBatchSize(2);
+		importer.setCommitInterval(3);
+		ImportReport report = importer.importCsv(new StringReader(csv));
+
+		assertThat(report.getRowsRead(), is(equalTo(5L)));
+		assertThat(report.getRowsInserted(), is(equalTo(2L)));
+		assertThat(report.getRowsRejected(), is(equalTo(3L)));
+		assertThat(JUnitBase.getTotalCount(em, CourseRegistration.class), is(equalTo(2L)));
+	}
+}
@@ -0,0 +1,178 @@
+package acmecollege.jfr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Student;
+import common.JUnitBase;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Each test runs under a JFR recording of the events of the package, without duration threshold
+ */
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestPersistenceEvents extends JUnitBase {
+
+	private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(EntityOperationEvent.class,
+		FlushEvent.class, TransactionEvent.class, CommitEvent.class, QueryExecutionEvent.class);
+
+	private Recording recording;
+	private List<RecordedEvent> events;
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	@BeforeEach
+	void setup() {
+		recording = new Recording();
+		for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+			recording.enable(event).withoutThreshold();
+		}
+		recording.start();
+		em = getEntityManager();
+		et = em.getTransaction();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+		recording.close();
+	}
+
+	private Student persistStudent(String lastName) {
+		et.begin();
+		Student student = new Student();
+		student.setFullName("John", lastName);
+		em.persist(student);
+		et.commit();
+		return student;
+	}
+
+	/**
+	 * @return The events named <code>name</code>, in the order they started.  The first call stops the recording.
+	 */
+	private List<RecordedEvent> recorded(String name) throws IOException {
+		if (events == null) {
+			recording.stop();
+			Path file = Files.createTempFile("TestPersistenceEvents", ".jfr");
+			try {
+				recording.dump(file);
+				events = RecordingFile.readAllEvents(file);
+			} finally {
+				Files.delete(file);
+			}
+			events.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+		}
+		return events.stream().filter(event -> event.getEventType().getName().equals(name))
+			.collect(Collectors.toList());
+	}
+
+	private static List<String> operations(List<RecordedEvent> events) {
+		return events.stream().map(event -> event.getString("operation") + " " + event.getClass("entityClass").getName()
+			+ " " + event.getString("id")).collect(Collectors.toList());
+	}
+
+	@Test
+	void test01_EntityOperations() throws IOException {
+		Student student = persistStudent("Smith");
+		em.clear();
+		et.begin();
+		Student found = em.find(Student.class, student.getId());
+		student.setFullName("Jane", "Smith");
+		em.merge(student);
+		em.remove(found);
+		et.commit();
+
+		// merge looks the managed copy up with a find of its own, nested in the merge
+		String studentAndId = " " + Student.class.getName() + " " + student.getId();
+		assertThat(operations(recorded("acmecollege.EntityOperation")), contains("persist" + studentAndId,
+			"find" + studentAndId, "merge" + studentAndId, "find" + studentAndId, "remove" + studentAndId));
+	}
+
+	@Test
+	void test02_FlushAndCommit() throws IOException {
+		persistStudent("Smith");
+		et.begin();
+		Student student = new Student();
+		student.setFullName("Jane", "Ngo");
+		em.persist(student);
+		et.rollback();
+
+		List<RecordedEvent> flushes = recorded("acmecollege.Flush");
+		assertThat(flushes, hasSize(1));
+		assertThat(flushes.get(0).getInt("entities"), is(equalTo(1)));
+		assertThat(flushes.get(0).getBoolean("automatic"), is(false));
+
+		List<RecordedEvent> commits = recorded("acmecollege.Commit");
+		assertThat(commits, hasSize(1));
+		// the flush is done before the commit starts
+		assertThat(commits.get(0).getStartTime(), greaterThanOrEqualTo(flushes.get(0).getEndTime()));
+
+		List<String> transactions = recorded("acmecollege.Transaction").stream()
+			.map(event -> event.getString("completion")).collect(Collectors.toList());
+		assertThat(transactions, contains("commit", "rollback"));
+	}
+
+	@Test
+	void test03_AutoFlushBeforeQuery() throws IOException {
+		et.begin();
+		Student student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		assertThat(em.createNamedQuery("Student.findAll", Student.class).getResultList(), hasSize(1));
+		et.rollback();
+
+		List<RecordedEvent> flushes = recorded("acmecollege.Flush");
+		assertThat(flushes, hasSize(1));
+		assertThat(flushes.get(0).getBoolean("automatic"), is(true));
+		assertThat(flushes.get(0).getInt("entities"), is(equalTo(1)));
+	}
+
+	@Test
+	void test04_QueryExecutionRows() throws IOException {
+		persistStudent("Smith");
+		persistStudent("Ngo");
+		em.clear();
+		assertThat(em.createNamedQuery("Student.findAll", Student.class).getResultList(), hasSize(2));
+
+		List<RecordedEvent> queries = recorded("acmecollege.QueryExecution").stream()
+			.filter(event -> "Student.findAll".equals(event.getString("origin"))).collect(Collectors.toList());
+		assertThat(queries, hasSize(1));
+		assertThat(queries.get(0).getLong("rows"), is(equalTo(2L)));
+		assertThat(recorded("acmecollege.QueryExecution").stream().map(event -> event.getString("origin"))
+			.collect(Collectors.toList()), hasItem("insert " + Student.class.getName()));
+	}
+
+	@Test
+	void test05_NothingWithoutRecording() throws IOException {
+		recording.stop();
+		events = List.of();
+		persistStudent("Smith");
+		for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+			assertThat(recorded(jdk.jfr.EventType.getEventType(event).getName()), is(empty()));
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package acmecollege.logging;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestSamplingFilter {
+
+	private static final String SQL = "org.hibernate.SQL";
+
+	private final AtomicLong now = new AtomicLong();
+
+	private final SamplingFilter filter = new SamplingFilter(List.of(SQL, "org.hibernate.type.descriptor.sql"), 1_000,
+		60_000, now::get);
+
+	@Test
+	void test01_SampledLoggers() {
+		assertThat(filter.isSampled(SQL), is(true));
+		assertThat(filter.isSampled("org.hibernate.type.descriptor.sql.BasicBinder"), is(true));
+		assertThat(filter.isSampled("org.hibernate.SQLQuery"), is(false));
+		assertThat(filter.isSampled("acmecollege.benchmark"), is(false));
+	}
+
+	@Test
+	void test02_TimeWindow() {
+		Log4jLogEvent event = Log4jLogEvent.newBuilder().setLoggerName(SQL).setLevel(Level.DEBUG).build();
+		now.set(120_000);
+		assertThat(filter.filter(event), is(Result.NEUTRAL));
+		now.set(120_999);
+		assertThat(filter.filter(event), is(Result.NEUTRAL));
+		now.set(121_000);
+		assertThat(filter.filter(event), is(Result.DENY));
+		now.set(179_999);
+		assertThat(filter.filter(event), is(Result.DENY));
+	}
+
+	@Test
+	void test03_OtherLoggersAreNotFiltered() {
+		now.set(30_000);
+		Log4jLogEvent event = Log4jLogEvent.newBuilder().setLoggerName("acmecollege").setLevel(Level.INFO).build();
+		assertThat(filter.filter(event), is(Result.NEUTRAL));
+	}
+
+	@Test
+	void test04_ContextWideFilterDisablesLevelCheck() {
+		LoggerContext context = new LoggerContext("TestSamplingFilter");
+		try {
+			context.getConfiguration().getRootLogger().setLevel(Level.ALL);
+			context.getConfiguration().addFilter(filter);
+			context.updateLoggers();
+
+			// Outside the sample isDebugEnabled() is false, so Hibernate does not build the message
+			now.set(30_000);
+			assertThat(context.getLogger(SQL).isDebugEnabled(), is(false));
+			assertThat(context.getLogger("acmecollege").isDebugEnabled(), is(true));
+			now.set(60_500);
+			assertThat(context.getLogger(SQL).isDebugEnabled(), is(true));
+		} finally {
+			context.stop();
+		}
+	}
+
+	@Test
+	void test05_InvalidPeriod() {
+		assertThrows(IllegalArgumentException.class, () -> SamplingFilter.createFilter(SQL, 1_000, 0));
+	}
+}
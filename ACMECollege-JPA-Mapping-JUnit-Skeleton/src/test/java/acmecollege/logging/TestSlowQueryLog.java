@@ -0,0 +1,213 @@
+package acmecollege.logging;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import common.DataIsolation;
+import common.DataIsolation.Mode;
+import common.JUnitBase;
+
+/**
+ * Queries run on a second {@link EntityManagerFactory} whose threshold is 0, so every statement is logged.  Its
+ * connections are not pinned, hence {@link Mode#SNAPSHOT}.
+ */
+@DataIsolation(Mode.SNAPSHOT)
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestSlowQueryLog extends JUnitBase {
+
+	private static final List<String> RECORDS = new CopyOnWriteArrayList<>();
+
+	private static EntityManagerFactory logged;
+
+	private static AbstractAppender appender;
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	@BeforeAll
+	static void setupAllLog() {
+		// Without second-level cache:  its regions are already used by JUnitBase.emf
+		logged = buildEMF(persistenceUnit(), Map.of(SlowQueryConnectionProvider.THRESHOLD_SETTING, "0",
+			AvailableSettings.USE_SECOND_LEVEL_CACHE, "false"));
+		appender = new AbstractAppender("TestSlowQueryLog", null, null, true, Property.EMPTY_ARRAY) {
+			@Override
+			public void append(LogEvent event) {
+				RECORDS.add(event.getMessage().getFormattedMessage());
+			}
+		};
+		appender.start();
+		slowQueryLogger().addAppender(appender);
+	}
+
+	@AfterAll
+	static void tearDownAllLog() {
+		slowQueryLogger().removeAppender(appender);
+		appender.stop();
+		logged.close();
+	}
+
+	private static Logger slowQueryLogger() {
+		return (Logger) LogManager.getLogger(SlowQueryLog.LOGGER_NAME);
+	}
+
+	@BeforeEach
+	void setup() {
+		em = logged.createEntityManager();
+		et = em.getTransaction();
+		et.begin();
+		for (String lastName : List.of("Smith", "Ngo")) {
+			Student student = new Student();
+			student.setFullName("John", lastName);
+			em.persist(student);
+		}
+		et.commit();
+		em.clear();
+		RECORDS.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	private static String onlyRecord() {
+		assertThat(RECORDS, hasSize(1));
+		return RECORDS.get(0);
+	}
+
+	@Test
+	void test01_OriginAndStatement() {
+		String[] originAndStatement = SlowQueryLog.originAndStatement("/* Student.findAll */ select\n"
+			+ "    s.id from student s");
+		assertThat(originAndStatement[0], is(equalTo("Student.findAll")));
+		assertThat(originAndStatement[1], is(equalTo("select s.id from student s")));
+
+		originAndStatement = SlowQueryLog.originAndStatement("select s.id from student s where s.id=?");
+		assertThat(originAndStatement[0], is(equalTo("table student")));
+
+		originAndStatement = SlowQueryLog.originAndStatement("select 1");
+		assertThat(originAndStatement[0], is(nullValue()));
+		assertThat(originAndStatement[1], is(equalTo("select 1")));
+	}
+
+	@Test
+	void test02_Find() {
+		int id = getAll(em, Student.class).get(0).getId();
+		em.clear();
+		RECORDS.clear();
+
+		em.find(Student.class, id);
+		String record = onlyRecord();
+		assertThat(record, containsString("1 rows, origin: table student"));
+		assertThat(record, containsString("parameters: [1=" + id + "]"));
+	}
+
+	@Test
+	void test03_CriteriaQueryOfJUnitBase() {
+		assertThat(getAll(em, Student.class), hasSize(2));
+		String record = onlyRecord();
+		assertThat(record, containsString("2 rows, origin: select generatedAlias0 from Student as generatedAlias0"));
+
+		RECORDS.clear();
+		assertThat(getTotalCount(em, Student.class), is(equalTo(2L)));
+		assertThat(onlyRecord(), containsString("1 rows, origin: select count(generatedAlias0) from Student"));
+	}
+
+	@Test
+	void test04_NamedQueriesFindAll() {
+		for (Class<?> entity : List.of(Student.class, Course.class, Professor.class)) {
+			em.createNamedQuery(entity.getSimpleName() + ".findAll", entity).getResultList();
+		}
+		assertThat(RECORDS, hasSize(3));
+		assertThat(RECORDS.get(0), containsString("2 rows, origin: Student.findAll"));
+		assertThat(RECORDS.get(1), containsString("0 rows, origin: Course.findAll"));
+		assertThat(RECORDS.get(2), containsString("0 rows, origin: Professor.findAll"));
+	}
+
+	@Test
+	void test05_UpdateRowsAndParameters() {
+		et.begin();
+		int updated = em.createQuery("UPDATE Student s SET s.firstName = :firstName WHERE s.firstName = :old")
+			.setParameter("firstName", "Jane")
+			.setParameter("old", "John")
+			.executeUpdate();
+		et.commit();
+
+		assertThat(updated, is(equalTo(2)));
+		assertThat(RECORDS, hasItem(containsString("2 rows, origin: UPDATE Student s")));
+		assertThat(RECORDS, hasItem(containsString("parameters: [1=Jane, 2=John]")));
+	}
+
+	@Test
+	void test06_FastStatementsAreNotLogged() {
+		// A connection of JUnitBase.emf, whose threshold is the one of persistence.xml
+		EntityManager other = getEntityManager();
+		other.unwrap(Session.class).doWork(connection -> {
+			for (long thresholdMillis : new long[] { 60_000, 0 }) {
+				Connection wrapped = new SlowQueryLog(thresholdMillis).wrap(connection);
+				try (PreparedStatement statement = wrapped.prepareStatement("SELECT ? FROM DUAL")) {
+					statement.setInt(1, 42);
+					ResultSet resultSet = statement.executeQuery();
+					while (resultSet.next()) {
+						resultSet.getInt(1);
+					}
+					resultSet.close();
+				}
+			}
+		});
+		other.close();
+		assertThat(onlyRecord(),
+			containsString("1 rows, origin: table DUAL, SQL: SELECT ? FROM DUAL, parameters: [1=42]"));
+	}
+
+	@Test
+	void test07_BatchParametersOfEveryRow() {
+		et.begin();
+		for (String lastName : List.of("Yap", "Lee", "Tran")) {
+			Student student = new Student();
+			student.setFullName("Jane", lastName);
+			em.persist(student);
+		}
+		et.commit();
+
+		// One INSERT batch of three rows, each row with its own parameters
+		assertThat(RECORDS, hasItem(allOf(containsString("3 rows, origin: insert acmecollege.entity.Student"),
+			matchesPattern(".*parameters: \\[[^\\]]*Yap[^\\]]*\\], \\[[^\\]]*Lee[^\\]]*\\], \\[[^\\]]*Tran[^\\]]*\\]$"))));
+	}
+}
@@ -0,0 +1,126 @@
+package acmecollege.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.Student;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestPersistenceMetrics extends JUnitBase {
+
+	private final Map<String, Double> recorded = new ConcurrentHashMap<>();
+
+	private PersistenceMetrics metrics;
+
+	@BeforeEach
+	void setup() {
+		metrics = new PersistenceMetrics(emf, (name, tags, value) -> recorded.put(name + tags, value));
+		statistics().clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		metrics.close();
+		statistics().setStatisticsEnabled(false);
+	}
+
+	private static Statistics statistics() {
+		return emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private <T> T inTransaction(Function<EntityManager, T> work) {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		T result = work.apply(em);
+		et.commit();
+		em.close();
+		return result;
+	}
+
+	@Test
+	void test01_EntityCountsAndTotals() {
+		int id = inTransaction(em -> {
+			Student student = new Student();
+			student.setFullName("John", "Smith");
+			em.persist(student);
+			return student.getId();
+		});
+		inTransaction(em -> em.find(Student.class, id));
+		metrics.export();
+
+		String student = "{entity=" + Student.class.getName() + "}";
+		assertThat(recorded.get("hibernate.entity.insert.count" + student), is(1.0));
+		assertThat(recorded.get("hibernate.entity.load.count" + student), is(1.0));
+		assertThat(recorded.get("hibernate.entity.delete.count" + student), is(0.0));
+		assertThat(recorded.get("hibernate.transaction.count{}"), is(2.0));
+		assertThat(recorded.get("hibernate.transaction.successful.count{}"), is(2.0));
+		assertThat(recorded.get("hibernate.flush.count{}"), greaterThanOrEqualTo(2.0));
+	}
+
+	@Test
+	void test02_QueryTimes() {
+		inTransaction(em -> em.createNamedQuery("Student.findAll", Student.class).getResultList());
+		inTransaction(em -> em.createNamedQuery("Student.findAll", Student.class).getResultList());
+		metrics.export();
+
+		String query = "{query=SELECT s FROM Student s}";
+		assertThat(recorded.get("hibernate.query.execution.count" + query), is(2.0));
+		double min = recorded.get("hibernate.query.time.min" + query);
+		double mean = recorded.get("hibernate.query.time.mean" + query);
+		assertThat(min, lessThanOrEqualTo(mean));
+		assertThat(mean, lessThanOrEqualTo(recorded.get("hibernate.query.time.max" + query)));
+	}
+
+	@Test
+	void test03_CacheHitRatio() {
+		int id = inTransaction(em -> {
+			Course course = new Course();
+			course.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+			em.persist(course);
+			return course.getId();
+		});
+		inTransaction(em -> em.find(Course.class, id));
+		metrics.export();
+
+		String region = "{region=" + Course.class.getName() + "}";
+		assertThat(recorded.get("hibernate.cache.hit.count" + region), greaterThan(0.0));
+		assertThat(recorded.get("hibernate.cache.hit.ratio" + region), is(equalTo(1.0)));
+	}
+
+	@Test
+	void test04_PeriodicExport() throws InterruptedException {
+		CountDownLatch exports = new CountDownLatch(2);
+		metrics.close();
+		metrics = new PersistenceMetrics(emf, (name, tags, value) -> {
+			if ("hibernate.session.open.count".equals(name)) {
+				exports.countDown();
+			}
+		}).start(Duration.ofMillis(50));
+		assertThat(exports.await(5, TimeUnit.SECONDS), is(true));
+	}
+}
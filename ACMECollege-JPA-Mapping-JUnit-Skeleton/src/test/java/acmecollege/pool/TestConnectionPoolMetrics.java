@@ -0,0 +1,56 @@
+package acmecollege.pool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import acmecollege.entity.Student;
+import common.DataIsolation;
+import common.DataIsolation.Mode;
+import common.JUnitBase;
+
+// Counts the connections checked out of the pool, a pinned connection would always be one of them
+@DataIsolation(Mode.SNAPSHOT)
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestConnectionPoolMetrics extends JUnitBase {
+
+	@Test
+	void test01_PoolSettings() {
+		assertThat(ConnectionPoolMetrics.isPooled(emf), is(true));
+		HikariDataSource dataSource = ConnectionPoolMetrics.dataSource(emf);
+		assertThat(dataSource.getPoolName(), equalTo("acmecollege-pool"));
+		assertThat(dataSource.getMinimumIdle(), equalTo(2));
+		assertThat(dataSource.getMaximumPoolSize(), equalTo(10));
+		assertThat(dataSource.getConnectionTimeout(), equalTo(30_000L));
+		assertThat(dataSource.getLeakDetectionThreshold(), equalTo(60_000L));
+	}
+
+	@Test
+	void test02_ActiveWhileInTransaction() {
+		HikariPoolMXBean gauges = ConnectionPoolMetrics.gauges(emf);
+		int activeBefore = gauges.getActiveConnections();
+
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		getTotalCount(em, Student.class);
+		assertThat(gauges.getActiveConnections(), equalTo(activeBefore + 1));
+		et.commit();
+		em.close();
+
+		assertThat(gauges.getActiveConnections(), equalTo(activeBefore));
+		assertThat(gauges.getIdleConnections(), is(greaterThan(0)));
+		assertThat(gauges.getThreadsAwaitingConnection(), equalTo(0));
+	}
+}
@@ -0,0 +1,65 @@
+package acmecollege.pool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+/**
+ * Selection of the {@link ConnectionProfile} through the system property, does not need a DB.
+ */
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestConnectionProfile {
+
+	private final String selectedBefore = System.getProperty(ConnectionProfile.SYSTEM_PROPERTY);
+
+	@AfterEach
+	void tearDown() {
+		if (selectedBefore == null) {
+			System.clearProperty(ConnectionProfile.SYSTEM_PROPERTY);
+		} else {
+			System.setProperty(ConnectionProfile.SYSTEM_PROPERTY, selectedBefore);
+		}
+	}
+
+	@Test
+	void test01_DefaultWhenNotSet() {
+		System.clearProperty(ConnectionProfile.SYSTEM_PROPERTY);
+		assertThat(ConnectionProfile.selected(), is(ConnectionProfile.DEFAULT));
+		assertThat(ConnectionProfile.DEFAULT.properties(), is(anEmptyMap()));
+	}
+
+	@Test
+	void test02_SelectedByName() {
+		System.setProperty(ConnectionProfile.SYSTEM_PROPERTY, " Throughput ");
+		assertThat(ConnectionProfile.selected(), is(ConnectionProfile.THROUGHPUT));
+		assertThat(ConnectionProfile.selected().properties(),
+			hasEntry("hibernate.hikari.dataSource.rewriteBatchedStatements", "true"));
+		// With useCursorFetch=true in the URL, a global fetch size would put every query on a server-side cursor
+		assertThat(ConnectionProfile.THROUGHPUT.properties(), not(hasKey("hibernate.jdbc.fetch_size")));
+	}
+
+	@Test
+	void test03_UnknownName() {
+		System.setProperty(ConnectionProfile.SYSTEM_PROPERTY, "fastest");
+		assertThrows(IllegalArgumentException.class, ConnectionProfile::selected);
+	}
+
+	@Test
+	void test04_OverridesWin() {
+		Map<String, Object> properties = ConnectionProfile.THROUGHPUT.properties(Map.of("hibernate.jdbc.fetch_size", "10"));
+		assertThat(properties.get("hibernate.jdbc.fetch_size"), equalTo("10"));
+		assertThat(properties, hasEntry("hibernate.hikari.dataSource.cachePrepStmts", "true"));
+	}
+}
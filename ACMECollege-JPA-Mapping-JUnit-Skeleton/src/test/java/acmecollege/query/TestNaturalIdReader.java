@@ -0,0 +1,165 @@
+package acmecollege.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.AcademicStudentClub;
+import acmecollege.entity.Course;
+import acmecollege.entity.StudentClub;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestNaturalIdReader extends JUnitBase {
+
+	private EntityManager em;
+	private EntityTransaction et;
+	private NaturalIdReader reader;
+
+	private Course autumn;
+	private Course winter;
+	private StudentClub club;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+		et.begin();
+		autumn = new Course();
+		autumn.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		em.persist(autumn);
+		winter = new Course();
+		winter.setCourse("CST8277", "Enterprise Application Programming", 2023, "WINTER", 3, (byte) 0);
+		em.persist(winter);
+		club = new AcademicStudentClub();
+		club.setName("Computer Programming Club");
+		em.persist(club);
+		et.commit();
+		em.clear();
+		emf.getCache().unwrap(Cache.class).evictAllRegions();
+		reader = new NaturalIdReader(em);
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	@Test
+	void test01_FindCourse() {
+		assertThat(reader.findCourse("CST8277", 2023, "WINTER").getId(), is(equalTo(winter.getId())));
+		assertThat(reader.findCourse("CST8277", 2022, "AUTUMN").getId(), is(equalTo(autumn.getId())));
+		assertThat(reader.findCourse("CST8277", 2022, "WINTER"), is(nullValue()));
+	}
+
+	@Test
+	void test02_FindClubOfSubclass() {
+		StudentClub found = reader.findClub("Computer Programming Club");
+		assertThat(found, is(instanceOf(AcademicStudentClub.class)));
+		assertThat(found.getId(), is(equalTo(club.getId())));
+		assertThat(reader.findClub("Student Hiking Club"), is(nullValue()));
+	}
+
+	@Test
+	void test03_RepeatedLookupsRunNoSql() {
+		reader.findCourse("CST8277", 2022, "AUTUMN");
+		reader.findClub("Computer Programming Club");
+
+		// Another EntityManager:  natural id and entity both come from the second-level cache.  Not the same one
+		// cleared, READ_WRITE regions do not serve an entry to the session which put it.
+		EntityManager other = getEntityManager();
+		NaturalIdReader otherReader = new NaturalIdReader(other);
+		resetSqlStatements();
+		Course course = otherReader.findCourse("CST8277", 2022, "AUTUMN");
+		StudentClub found = otherReader.findClub("Computer Programming Club");
+		assertStatementCount(0);
+		other.close();
+		assertThat(course.getId(), is(equalTo(autumn.getId())));
+		assertThat(found.getId(), is(equalTo(club.getId())));
+	}
+
+	@Test
+	void test04_RenamedClub() {
+		StudentClub found = reader.findClub("Computer Programming Club");
+		et.begin();
+		found.setName("Coding Club");
+		// Not flushed yet, the managed club is checked for a changed natural id
+		assertThat(reader.findClub("Coding Club"), is(found));
+		et.commit();
+		em.clear();
+
+		assertThat(reader.findClub("Computer Programming Club"), is(nullValue()));
+		assertThat(reader.findClub("Coding Club").getId(), is(equalTo(club.getId())));
+	}
+
+	@Test
+	void test05_DuplicateCourseTermIsRejected() {
+		et.begin();
+		Course duplicate = new Course();
+		duplicate.setCourse("CST8277", "Another Title", 2022, "AUTUMN", 3, (byte) 1);
+		assertThrows(PersistenceException.class, () -> {
+			em.persist(duplicate);
+			em.flush();
+		});
+		et.rollback();
+	}
+
+	@Test
+	void test06_IncompleteNaturalId() {
+		assertThrows(IllegalArgumentException.class, () -> reader.findByNaturalId(Course.class, Map.of()));
+		assertThrows(RuntimeException.class,
+			() -> reader.findByNaturalId(Course.class, Map.of("courseCode", "CST8277")));
+	}
+
+	@Test
+	void test07_RenamedCourseThroughAnotherEntityManager() {
+		assertThat(reader.findCourse("CST8277", 2022, "AUTUMN").getId(), is(equalTo(autumn.getId())));
+		em.clear();
+
+		// Natural id and entity are in the second-level cache now, the rename must replace the old key there
+		EntityManager other = getEntityManager();
+		EntityTransaction otherEt = other.getTransaction();
+		otherEt.begin();
+		new NaturalIdReader(other).findCourse("CST8277", 2022, "AUTUMN").setCourseCode("CST8288");
+		otherEt.commit();
+		other.close();
+
+		assertThat(reader.findCourse("CST8277", 2022, "AUTUMN"), is(nullValue()));
+		assertThat(reader.findCourse("CST8288", 2022, "AUTUMN").getId(), is(equalTo(autumn.getId())));
+	}
+
+	@Test
+	void test08_RenamedCourseByBulkUpdate() {
+		assertThat(reader.findCourse("CST8277", 2022, "AUTUMN").getId(), is(equalTo(autumn.getId())));
+		em.clear();
+
+		EntityManager other = getEntityManager();
+		EntityTransaction otherEt = other.getTransaction();
+		otherEt.begin();
+		other.createQuery("UPDATE Course c SET c.courseCode = :code WHERE c.id = :id")
+			.setParameter("code", "CST8288")
+			.setParameter("id", autumn.getId())
+			.executeUpdate();
+		otherEt.commit();
+		other.close();
+
+		assertThat(reader.findCourse("CST8277", 2022, "AUTUMN"), is(nullValue()));
+		assertThat(reader.findCourse("CST8288", 2022, "AUTUMN").getId(), is(equalTo(autumn.getId())));
+	}
+}
@@ -0,0 +1,116 @@
+package acmecollege.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.Course_;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestProjectionReader extends JUnitBase {
+
+	/**
+	 * Row of {@link #test04_CustomProjection()}, public:  Hibernate only calls public constructors
+	 */
+	public record CourseTitle(String code, String title) {
+	}
+
+	private EntityManager em;
+	private ProjectionReader reader;
+
+	private Student smith;
+	private Student ngo;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		smith = new Student();
+		smith.setFullName("John", "Smith");
+		ngo = new Student();
+		ngo.setFullName("Anh", "Ngo");
+		Course jpa = new Course();
+		jpa.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		Course web = new Course();
+		web.setCourse("CST8285", "Web Programming", 2022, "AUTUMN", 3, (byte) 1);
+		Professor yap = new Professor();
+		yap.setProfessor("Teddy", "Yap", "Information and Communications Technology");
+		register(smith, jpa, yap, "A+");
+		register(ngo, web, null, null);
+		register(ngo, jpa, yap, "B");
+		et.commit();
+		em.clear();
+		reader = new ProjectionReader(em);
+	}
+
+	private void register(Student student, Course course, Professor professor, String letterGrade) {
+		CourseRegistration registration = new CourseRegistration();
+		registration.setStudent(student);
+		registration.setCourse(course);
+		registration.setProfessor(professor);
+		registration.setLetterGrade(letterGrade);
+		em.persist(registration);
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	private int managedEntities() {
+		return em.unwrap(Session.class).getStatistics().getEntityCount();
+	}
+
+	@Test
+	void test01_StudentNames() {
+		assertThat(reader.studentNames(), contains(new StudentName(ngo.getId(), "Anh", "Ngo"),
+			new StudentName(smith.getId(), "John", "Smith")));
+		assertThat(managedEntities(), is(equalTo(0)));
+	}
+
+	@Test
+	void test02_RegistrationsInOneSelectWithoutEntities() {
+		resetSqlStatements();
+		List<RegistrationRow> rows = reader.registrations();
+
+		assertThat(rows, contains(new RegistrationRow(ngo.getId(), "Anh", "Ngo", "CST8277", "B", "Yap"),
+			new RegistrationRow(ngo.getId(), "Anh", "Ngo", "CST8285", null, null),
+			new RegistrationRow(smith.getId(), "John", "Smith", "CST8277", "A+", "Yap")));
+		assertSelectCount(1);
+		assertThat(managedEntities(), is(equalTo(0)));
+	}
+
+	@Test
+	void test03_RegistrationsOfCourse() {
+		assertThat(reader.registrationsOfCourse("CST8285"),
+			contains(new RegistrationRow(ngo.getId(), "Anh", "Ngo", "CST8285", null, null)));
+	}
+
+	@Test
+	void test04_CustomProjection() {
+		List<CourseTitle> titles = reader.list(Course.class, CourseTitle.class, (builder, query, course) -> {
+			query.where(builder.equal(course.get(Course_.online), (byte) 1));
+			return List.of(course.get(Course_.courseCode), course.get(Course_.courseTitle));
+		});
+		assertThat(titles, contains(new CourseTitle("CST8285", "Web Programming")));
+	}
+}
@@ -0,0 +1,132 @@
+package acmecollege.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.CourseRegistrationPK;
+import acmecollege.entity.CourseRegistration_;
+import acmecollege.entity.PojoBase_;
+import acmecollege.entity.Professor;
+import acmecollege.entity.Student;
+import acmecollege.entity.Student_;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestQueryTemplates extends JUnitBase {
+
+	private EntityManager em;
+	private EntityTransaction et;
+	private QueryTemplates templates;
+
+	private Student smith;
+	private Student ngo;
+	private CourseRegistration registration;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+		et.begin();
+		smith = new Student();
+		smith.setFullName("John", "Smith");
+		em.persist(smith);
+		ngo = new Student();
+		ngo.setFullName("Anh", "Ngo");
+		em.persist(ngo);
+		Course course = new Course();
+		course.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		em.persist(course);
+		registration = new CourseRegistration();
+		registration.setStudent(smith);
+		registration.setCourse(course);
+		em.persist(registration);
+		et.commit();
+		em.clear();
+		templates = new QueryTemplates();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	@Test
+	void test01_CompiledOncePerEntityClass() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(templates.all(em, Student.class).getResultList().size(), is(equalTo(2)));
+			assertThat(templates.count(em, Student.class).getSingleResult(), is(equalTo(2L)));
+			assertThat(templates.count(em, Professor.class).getSingleResult(), is(equalTo(0L)));
+		}
+		assertThat(templates.getCompilations(), is(equalTo(3L)));
+		assertThat(templates.size(), is(equalTo(3)));
+	}
+
+	@Test
+	void test02_CompiledOncePerAttribute() {
+		assertThat(templates.withAttribute(em, Student.class, PojoBase_.id, smith.getId()).getSingleResult(),
+			is(equalTo(smith)));
+		assertThat(templates.withAttribute(em, Student.class, PojoBase_.id, ngo.getId()).getSingleResult(),
+			is(equalTo(ngo)));
+		assertThat(templates.withAttribute(em, Student.class, Student_.lastName, "Ngo").getResultList(),
+			contains(ngo));
+		assertThat(templates.countWithAttribute(em, Student.class, Student_.lastName, "Yap").getSingleResult(),
+			is(equalTo(0L)));
+		assertThat(templates.getCompilations(), is(equalTo(3L)));
+	}
+
+	@Test
+	void test03_JUnitBaseHelpersWithEmbeddedId() {
+		CourseRegistrationPK id = registration.getId();
+		assertThat(getWithId(em, CourseRegistration.class, CourseRegistration_.id, id).getStudent(),
+			is(equalTo(smith)));
+		assertThat(getCountWithId(em, CourseRegistration.class, CourseRegistration_.id, id), is(equalTo(1L)));
+
+		assertThat(getWithId(em, Student.class, Student_.id, -1), is(nullValue()));
+		assertThat(getCountWithId(em, Student.class, Student_.id, smith.getId()), is(equalTo(1L)));
+	}
+
+	@Test
+	void test04_LeastRecentlyUsedIsDropped() {
+		QueryTemplates two = new QueryTemplates(2);
+		two.count(em, Student.class);
+		two.count(em, Course.class);
+		two.count(em, Student.class);
+		two.count(em, Professor.class);
+		assertThat(two.size(), is(equalTo(2)));
+		assertThat(two.getCompilations(), is(equalTo(3L)));
+
+		// Student was used last, Course was dropped
+		two.count(em, Student.class);
+		assertThat(two.getCompilations(), is(equalTo(3L)));
+		two.count(em, Course.class);
+		assertThat(two.getCompilations(), is(equalTo(4L)));
+	}
+
+	@Test
+	void test05_DeleteAll() {
+		et.begin();
+		assertThat(templates.deleteAll(em, CourseRegistration.class).executeUpdate(), is(equalTo(1)));
+		et.commit();
+		assertThat(getTotalCount(em, CourseRegistration.class), is(equalTo(0L)));
+	}
+
+	@Test
+	void test06_InvalidMaxSize() {
+		assertThrows(IllegalArgumentException.class, () -> new QueryTemplates(0));
+	}
+}
@@ -0,0 +1,111 @@
+package acmecollege.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Student;
+import common.DataIsolation;
+import common.DataIsolation.Mode;
+import common.JUnitBase;
+
+/**
+ * The replica of test04 is a second {@link javax.persistence.EntityManagerFactory} on the same DB, its connections are
+ * not pinned, hence {@link Mode#SNAPSHOT}.
+ */
+@DataIsolation(Mode.SNAPSHOT)
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestReadOnlyEntityManagers extends JUnitBase {
+
+	private int studentId;
+
+	@BeforeEach
+	void setup() {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Student student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		et.commit();
+		em.close();
+		studentId = student.getId();
+	}
+
+	private static String lastNameOf(int studentId) {
+		EntityManager em = getEntityManager();
+		String lastName = em.find(Student.class, studentId).getLastName();
+		em.close();
+		return lastName;
+	}
+
+	@Test
+	void test01_ChangesAreNotWritten() {
+		EntityManager em = new ReadOnlyEntityManagers(emf).createEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Student student = em.find(Student.class, studentId);
+		assertThat(em.unwrap(Session.class).isReadOnly(student), is(true));
+		student.setFullName("John", "Changed");
+		et.commit();
+		em.close();
+
+		assertThat(lastNameOf(studentId), is(equalTo("Smith")));
+	}
+
+	@Test
+	void test02_NoAutomaticFlush() {
+		EntityManager em = new ReadOnlyEntityManagers(emf).createEntityManager();
+		assertThat(em.unwrap(Session.class).getHibernateFlushMode(), is(FlushMode.MANUAL));
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Student student = new Student();
+		student.setFullName("Jane", "Doe");
+		em.persist(student);
+		resetSqlStatements();
+		// the pending INSERT is not flushed before the query, which does not see Jane
+		assertThat(em.createNamedQuery("Student.findAll", Student.class).getResultList(), hasSize(1));
+		assertStatementCount(1);
+		et.rollback();
+		em.close();
+	}
+
+	@Test
+	void test03_ReadOnlyExistingEntityManager() {
+		EntityManager em = getEntityManager();
+		Student writable = em.find(Student.class, studentId);
+		ReadOnlyEntityManagers.readOnly(em);
+		Session session = em.unwrap(Session.class);
+		assertThat(session.isReadOnly(writable), is(false));
+		em.clear();
+		assertThat(session.isReadOnly(em.find(Student.class, studentId)), is(true));
+		em.close();
+	}
+
+	@Test
+	void test04_Replica() {
+		String url = (String) emf.getProperties().get(AvailableSettings.JPA_JDBC_URL);
+		try (ReadOnlyEntityManagers replica = ReadOnlyEntityManagers.onReplica(persistenceUnit(), url, Map.of())) {
+			EntityManager em = replica.createEntityManager();
+			Student student = em.find(Student.class, studentId);
+			assertThat(student.getLastName(), is(equalTo("Smith")));
+			assertThat(em.unwrap(Session.class).isReadOnly(student), is(true));
+			assertThat(em.getEntityManagerFactory() == emf, is(false));
+			em.close();
+		}
+	}
+}
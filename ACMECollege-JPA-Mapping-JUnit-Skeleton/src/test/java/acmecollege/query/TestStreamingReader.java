@@ -0,0 +1,150 @@
+package acmecollege.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.CourseRegistrationPK;
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Student;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestStreamingReader extends JUnitBase {
+
+	private static final int STUDENTS = 25;
+
+	private EntityManager em;
+	private StreamingReader reader;
+	private List<Integer> studentIds;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		studentIds = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			studentIds.add(student.getId());
+		}
+		et.commit();
+		em.clear();
+		reader = new StreamingReader(em);
+		reader.setPageSize(10);
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	private int managedEntities() {
+		return em.unwrap(Session.class).getStatistics().getEntityCount();
+	}
+
+	@Test
+	void test01_KeysetPages() {
+		List<Student> first = reader.pageAfter(Student.class, null);
+		List<Student> second = reader.pageAfter(Student.class, first.get(first.size() - 1).getId());
+		List<Student> third = reader.pageAfter(Student.class, second.get(second.size() - 1).getId());
+
+		assertThat(first, hasSize(10));
+		assertThat(second, hasSize(10));
+		assertThat(third, hasSize(5));
+		assertThat(reader.pageAfter(Student.class, third.get(4).getId()), is(empty()));
+		List<Integer> ids = Stream.of(first, second, third).flatMap(List::stream).map(PojoBase::getId)
+			.collect(Collectors.toList());
+		assertThat(ids, is(equalTo(studentIds)));
+	}
+
+	@Test
+	void test02_KeysetStreamClearsEveryInterval() {
+		reader.setClearInterval(10);
+		resetSqlStatements();
+		List<Integer> ids = new ArrayList<>();
+		reader.streamByKeyset(Student.class).forEach(student -> {
+			assertThat(managedEntities(), is(lessThanOrEqualTo(10)));
+			ids.add(student.getId());
+		});
+		assertThat(ids, is(equalTo(studentIds)));
+		// 10 + 10 + 5:  the short page ends the stream
+		assertSelectCount(3);
+	}
+
+	@Test
+	void test03_CursorStream() {
+		reader.setFetchSize(5);
+		reader.setClearInterval(7);
+		List<Integer> ids;
+		try (Stream<Student> students = reader.streamWithCursor(Student.class)) {
+			ids = students.peek(student -> assertThat(managedEntities(), is(lessThanOrEqualTo(7))))
+				.map(PojoBase::getId).sorted().collect(Collectors.toList());
+		}
+		assertThat(ids, is(equalTo(studentIds)));
+	}
+
+	@Test
+	void test04_RegistrationsByStudentThenCourse() {
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<Course> courses = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Course course = new Course();
+			course.setCourse("CST827" + i, "Course " + i, 2022, "AUTUMN", 3, (byte) 0);
+			em.persist(course);
+			courses.add(course);
+		}
+		List<CourseRegistrationPK> expected = new ArrayList<>();
+		for (int studentId : studentIds.subList(0, 3)) {
+			for (Course course : courses) {
+				CourseRegistration registration = new CourseRegistration();
+				registration.setStudent(em.getReference(Student.class, studentId));
+				registration.setCourse(course);
+				em.persist(registration);
+				expected.add(new CourseRegistrationPK(studentId, course.getId()));
+			}
+		}
+		et.commit();
+		em.clear();
+
+		reader.setPageSize(4);
+		List<CourseRegistration> page = reader.registrationsAfter(expected.get(3));
+		assertThat(page.stream().map(CourseRegistration::getId).collect(Collectors.toList()),
+			contains(expected.subList(4, 8).toArray()));
+		List<CourseRegistrationPK> keys = reader.streamRegistrationsByKeyset().map(CourseRegistration::getId)
+			.collect(Collectors.toList());
+		assertThat(keys, is(equalTo(expected)));
+	}
+
+	@Test
+	void test05_InvalidSizes() {
+		assertThrows(IllegalArgumentException.class, () -> reader.setPageSize(0));
+		assertThrows(IllegalArgumentException.class, () -> reader.setFetchSize(0));
+		assertThrows(IllegalArgumentException.class, () -> reader.setClearInterval(0));
+	}
+}
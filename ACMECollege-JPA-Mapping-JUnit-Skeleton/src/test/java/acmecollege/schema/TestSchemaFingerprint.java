@@ -0,0 +1,148 @@
+package acmecollege.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Student;
+import common.DataIsolation;
+import common.DataIsolation.Mode;
+import common.JUnitBase;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestSchemaFingerprint extends JUnitBase {
+
+	private final String enabledBefore = System.getProperty(SchemaFingerprint.SYSTEM_PROPERTY);
+
+	@AfterEach
+	void tearDown() {
+		if (enabledBefore == null) {
+			System.clearProperty(SchemaFingerprint.SYSTEM_PROPERTY);
+		} else {
+			System.setProperty(SchemaFingerprint.SYSTEM_PROPERTY, enabledBefore);
+		}
+	}
+
+	@Test
+	void test01_FingerprintOfScriptsAndMapping() {
+		String fingerprint = SchemaFingerprint.fingerprint("drop", "create", "mapping");
+		assertThat(fingerprint, matchesPattern("[0-9a-f]{64}"));
+		assertThat(SchemaFingerprint.fingerprint("drop", "create", "mapping"), equalTo(fingerprint));
+		assertThat(SchemaFingerprint.fingerprint("drop", "create2", "mapping"), is(not(equalTo(fingerprint))));
+		assertThat(SchemaFingerprint.fingerprint("drop", "create", "mapping2"), is(not(equalTo(fingerprint))));
+		assertThat(SchemaFingerprint.fingerprint("drop", "createmapping", ""), is(not(equalTo(fingerprint))));
+	}
+
+	@Test
+	void test02_MappingDescription() {
+		String mapping = SchemaFingerprint.describeMapping(emf.unwrap(SessionFactoryImplementor.class));
+		assertThat(mapping, containsString("entity acmecollege.entity.StudentClub: student_club id[club_id]"));
+		assertThat(mapping, containsString("collection acmecollege.entity.Student.courseRegistrations:"));
+	}
+
+	@Test
+	@DataIsolation(Mode.SNAPSHOT)
+	void test03_UnchangedSchemaIsKept() {
+		System.setProperty(SchemaFingerprint.SYSTEM_PROPERTY, "true");
+		// Without second-level cache, its regions are already used by JUnitBase.emf
+		Map<String, Object> noCache = Map.of(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+		EntityManagerFactory first = buildEMF(persistenceUnit(), noCache);
+		first.close();
+
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Student student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		et.commit();
+		em.close();
+
+		// Same scripts and mapping:  no drop-and-create, the student is still there
+		EntityManagerFactory second = buildEMF(persistenceUnit(), noCache);
+		EntityManager em2 = second.createEntityManager();
+		assertThat(getTotalCount(em2, Student.class), is(equalTo(1L)));
+		em2.close();
+		second.close();
+	}
+
+	@Test
+	void test04_DropTablesOfCreateScript() {
+		String[] drops = SchemaFingerprint.dropTables(new String[] {
+			"CREATE SCHEMA IF NOT EXISTS `acmecollege`",
+			"CREATE TABLE IF NOT EXISTS `student` (`id` INT NOT NULL)",
+			"create table acmecollege.course (`id` INT NOT NULL)",
+			"CREATE TABLE `course_registration` (`student_id` INT NOT NULL)" });
+		assertThat(drops, arrayContaining("DROP TABLE IF EXISTS `course_registration`",
+			"DROP TABLE IF EXISTS acmecollege.course", "DROP TABLE IF EXISTS `student`"));
+	}
+
+	@Test
+	@DataIsolation(Mode.SNAPSHOT)
+	void test05_ChangedColumnReachesTheDB() throws IOException {
+		System.setProperty(SchemaFingerprint.SYSTEM_PROPERTY, "true");
+		String createScriptSource = EMBEDDED_PERSISTENCE_UNIT.equals(persistenceUnit())
+			? "META-INF/sql/acmecollege-create-h2.sql" : "META-INF/sql/acmecollege-create.sql";
+		String createScript;
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(createScriptSource)) {
+			createScript = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		String lastName = "`last_name` VARCHAR(50) NOT NULL";
+		assertThat(createScript, containsString(lastName));
+
+		// The student table comes first, only its last_name is changed.  The drop script empties the tables only, like
+		// acmecollege-drop.sql, and the create script skips the tables that exist.
+		Map<String, Object> changed = new HashMap<>();
+		changed.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+		changed.put(AvailableSettings.HBM2DDL_DROP_SCRIPT_SOURCE, new StringReader("DELETE FROM `student`;"));
+		changed.put(AvailableSettings.HBM2DDL_CREATE_SCRIPT_SOURCE,
+			new StringReader(createScript.replaceFirst(Pattern.quote(lastName), "`last_name` VARCHAR(120) NOT NULL")));
+		try {
+			EntityManagerFactory changedEMF = buildEMF(persistenceUnit(), changed);
+			EntityManager em = changedEMF.createEntityManager();
+			assertThat(lastNameSize(em), is(equalTo(120)));
+			em.close();
+			changedEMF.close();
+		} finally {
+			// Back to the schema of the scripts, dropped and created again as its fingerprint is different
+			buildEMF(persistenceUnit(), Map.of(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")).close();
+		}
+		EntityManager em = getEntityManager();
+		assertThat(lastNameSize(em), is(equalTo(50)));
+		em.close();
+	}
+
+	private static int lastNameSize(EntityManager em) {
+		return em.unwrap(Session.class).doReturningWork(connection -> {
+			try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(),
+				"student", "last_name")) {
+				return columns.next() ? columns.getInt("COLUMN_SIZE") : -1;
+			}
+		});
+	}
+}
@@ -0,0 +1,176 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.PojoBase;
+import acmecollege.entity.Student;
+
+/**
+ * Super class for the stand-alone benchmarks in acmecollege.benchmark.  Benchmarks are plain Java applications (run
+ * the main method, same as {@link acmecollege.ACMECollegeDriver}) so they are not picked up by surefire.<br>
+ * Holds common methods for reading benchmark settings and timing a unit of work, the {@link EntityManagerFactory}
+ * and clean-up helpers are inherited from {@link JUnitBase}.
+ */
+public abstract class BenchmarkBase extends JUnitBase {
+
+	/**
+	 * Results are logged at INFO level under acmecollege.benchmark (the 'common' package only logs warnings)
+	 */
+	protected static final Logger LOG = LogManager.getLogger("acmecollege.benchmark");
+
+	/**
+	 * Number of un-timed runs before the measured ones, gives the JIT and the DB a chance to warm up
+	 */
+	protected static final int WARMUP_RUNS = Integer.getInteger("benchmark.warmup", 2);
+
+	/**
+	 * Number of measured runs, the best one is reported
+	 */
+	protected static final int MEASURED_RUNS = Integer.getInteger("benchmark.runs", 3);
+
+	/**
+	 * Execute the unit of work {@link #WARMUP_RUNS} + {@link #MEASURED_RUNS} times.
+	 *
+	 * @param work - unit of work, is given the run number (warm-up runs are negative)
+	 * @return The fastest measured run in nanoseconds
+	 */
+	protected static long bestOf(IntConsumer work) {
+		for (int i = -WARMUP_RUNS; i < 0; i++) {
+			work.accept(i);
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long start = System.nanoTime();
+			work.accept(i);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best;
+	}
+
+	/**
+	 * @return Throughput of <code>count</code> operations executed in <code>nanos</code>
+	 */
+	protected static double perSecond(long count, long nanos) {
+		return count * 1_000_000_000d / nanos;
+	}
+
+	/**
+	 * @return <code>nanos</code> in milliseconds
+	 */
+	protected static double millis(long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+	/**
+	 * @return Heap in use after a few garbage collections, in bytes
+	 */
+	protected static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * @param sorted     - measurements in ascending order, not empty
+	 * @param percentile - between 0 and 100, for example 99 for the p99
+	 * @return The measurement below which <code>percentile</code>% of the measurements fall (nearest rank)
+	 */
+	protected static long percentile(long[] sorted, double percentile) {
+		int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	/**
+	 * Persist <code>count</code> {@link Student}s in one transaction, flushed and cleared every
+	 * {@link PojoBase#ID_ALLOCATION_SIZE} rows (same as a real import, keeps the persistence context small).
+	 *
+	 * @return The id's of the new students, in insertion order
+	 */
+	protected static List<Integer> insertStudents(int count) {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		List<Integer> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			ids.add(student.getId());
+			if ((i + 1) % PojoBase.ID_ALLOCATION_SIZE == 0) {
+				em.flush();
+				em.clear();
+			}
+		}
+		et.commit();
+		em.close();
+		return ids;
+	}
+
+	/**
+	 * Persist a {@link Course} with <code>registrations</code> {@link CourseRegistration}s, each of a new
+	 * {@link Student}, in one transaction flushed and cleared every {@link PojoBase#ID_ALLOCATION_SIZE} registrations.
+	 *
+	 * @return The id of the course
+	 */
+	protected static int createCourseSection(int registrations) {
+		EntityManager em = getEntityManager();
+		EntityTransaction et = em.getTransaction();
+		et.begin();
+		Course course = new Course();
+		course.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		em.persist(course);
+		int courseId = course.getId();
+		for (int i = 0; i < registrations; i++) {
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			CourseRegistration cr = new CourseRegistration();
+			cr.setStudent(student);
+			cr.setCourse(course);
+			cr.setNumericGrade(i % 100);
+			em.persist(cr);
+			if ((i + 1) % PojoBase.ID_ALLOCATION_SIZE == 0) {
+				em.flush();
+				em.clear();
+				course = em.getReference(Course.class, courseId);
+			}
+		}
+		et.commit();
+		em.close();
+		return courseId;
+	}
+
+	/**
+	 * Persist/find loop, <code>iterations</code> times:  persist a {@link Student} and commit, then find it in a new
+	 * {@link EntityManager}.
+	 */
+	protected static void persistAndFind(int iterations) {
+		for (int i = 0; i < iterations; i++) {
+			EntityManager em = getEntityManager();
+			EntityTransaction et = em.getTransaction();
+			et.begin();
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			et.commit();
+			em.close();
+
+			em = getEntityManager();
+			em.find(Student.class, student.getId());
+			em.close();
+		}
+	}
+}
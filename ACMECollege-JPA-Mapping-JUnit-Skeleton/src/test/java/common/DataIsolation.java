@@ -0,0 +1,42 @@
+package common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects how {@link DataIsolationExtension} resets the DB after a test.  Put it on a test class (applies to all its
+ * tests) or on a test method (wins over the class).  Without it every test of a {@link JUnitBase} sub-class runs in
+ * {@link Mode#ROLLBACK}.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface DataIsolation {
+
+	Mode value();
+
+	enum Mode {
+		/**
+		 * All EntityManagers of the test thread share one connection, their transactions are savepoints inside one DB
+		 * transaction which is rolled back after the test.  Cost does not depend on the amount of data.
+		 */
+		ROLLBACK,
+
+		/**
+		 * For tests that must really commit (other threads or connections have to see the data, the test looks at the
+		 * pool itself, etc.).  The tables are copied before the test and restored after it.
+		 */
+		SNAPSHOT,
+
+		/**
+		 * No reset, data committed by a test is seen by the next ones.  For ordered tests building on each other, the
+		 * tables are still emptied once before the class by {@link JUnitBase}.
+		 */
+		NONE
+	}
+}
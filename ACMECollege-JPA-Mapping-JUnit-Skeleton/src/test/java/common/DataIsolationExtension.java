@@ -0,0 +1,92 @@
+package common;
+
+import java.lang.reflect.AnnotatedElement;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Cache;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import common.DataIsolation.Mode;
+
+/**
+ * Resets the DB after each test of a {@link JUnitBase} sub-class, in place of calling
+ * {@link JUnitBase#deleteAllData()} before or after each test (one DELETE per table, slower as the tables grow).
+ * <p>
+ * The mode is given by {@link DataIsolation}, {@link Mode#ROLLBACK} by default.  ROLLBACK needs the connections to
+ * come from {@link PinnedConnectionProvider} (the case for {@link JUnitBase#buildEMF()}), otherwise the test falls
+ * back to {@link Mode#SNAPSHOT}.  The second-level cache is cleared after the reset, it may hold entities which are no
+ * longer in the DB.
+ * <p>
+ * Runs around the @BeforeEach and @AfterEach methods, so the data they create is reset too.
+ */
+public class DataIsolationExtension implements BeforeEachCallback, AfterEachCallback {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final Namespace NAMESPACE = Namespace.create(DataIsolationExtension.class);
+
+	@Override
+	public void beforeEach(ExtensionContext context) throws SQLException {
+		EntityManagerFactory emf = JUnitBase.emf;
+		Mode mode = mode(context);
+		if (emf == null || mode == Mode.NONE) {
+			return;
+		}
+		PinnedConnectionProvider provider = pinnedConnectionProvider(emf);
+		if (mode == Mode.ROLLBACK && provider == null) {
+			LOG.debug("{} does not use PinnedConnectionProvider, falling back to SNAPSHOT", context.getDisplayName());
+			mode = Mode.SNAPSHOT;
+		}
+		if (mode == Mode.ROLLBACK) {
+			provider.pin();
+		} else {
+			context.getStore(NAMESPACE).put(TableSnapshot.class, TableSnapshot.take(emf));
+		}
+		context.getStore(NAMESPACE).put(Mode.class, mode);
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) throws SQLException {
+		Mode mode = context.getStore(NAMESPACE).remove(Mode.class, Mode.class);
+		if (mode == null) {
+			return;
+		}
+		EntityManagerFactory emf = JUnitBase.emf;
+		if (mode == Mode.ROLLBACK) {
+			pinnedConnectionProvider(emf).unpin();
+		} else {
+			context.getStore(NAMESPACE).remove(TableSnapshot.class, TableSnapshot.class).restore();
+		}
+		// Every region:  JPA's evictAll() leaves the natural id regions (Course, StudentClub) and the collections
+		emf.getCache().unwrap(Cache.class).evictAllRegions();
+	}
+
+	private static Mode mode(ExtensionContext context) {
+		Optional<DataIsolation> annotation = context.getTestMethod().flatMap(DataIsolationExtension::isolation);
+		if (annotation.isEmpty()) {
+			annotation = context.getTestClass().flatMap(DataIsolationExtension::isolation);
+		}
+		return annotation.map(DataIsolation::value).orElse(Mode.ROLLBACK);
+	}
+
+	private static Optional<DataIsolation> isolation(AnnotatedElement element) {
+		return AnnotationSupport.findAnnotation(element, DataIsolation.class);
+	}
+
+	private static PinnedConnectionProvider pinnedConnectionProvider(EntityManagerFactory emf) {
+		ConnectionProvider provider = emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+			.getService(ConnectionProvider.class);
+		return provider instanceof PinnedConnectionProvider ? (PinnedConnectionProvider) provider : null;
+	}
+}
@@ -1,23 +1,22 @@
 package common;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
-import javax.persistence.Persistence;
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaDelete;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.cfg.AvailableSettings;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import acmecollege.entity.ClubMembership;
 import acmecollege.entity.Course;
@@ -29,15 +28,21 @@ import acmecollege.entity.Professor;
 import acmecollege.entity.Student;
 import acmecollege.entity.StudentClub;
 import acmecollege.entity.Student_;
+import acmecollege.pool.ConnectionProfile;
+import acmecollege.query.QueryTemplates;
+import acmecollege.schema.SchemaFingerprint;
 
 /**
  * Super class for all JUnit tests, holds common methods for creating {@link EntityManagerFactory} and truncating the DB
- * before all.
+ * before all.  Data created by each test is reset by {@link DataIsolationExtension}, see {@link DataIsolation}.  The SQL
+ * of each test is recorded by {@link SqlBudgetExtension}, for the assertions on the number of statements and the
+ * {@link SqlBudget} of the test.
  * 
  * @author Teddy Yap
  * @author Shariar (Shawn) Emami
  * @version August 28, 2022
  */
+@ExtendWith({ DataIsolationExtension.class, SqlBudgetExtension.class })
 public class JUnitBase {
 
 	protected static final Logger LOG = LogManager.getLogger();
@@ -47,32 +52,90 @@ public class JUnitBase {
 	 */
 	private static final String PERSISTENCE_UNIT = "acmecollege-PU";
 
+	/**
+	 * Persistence Unit backed by an embedded, in-memory H2 DB = "acmecollege-PU-h2", defined in the test resources
+	 */
+	public static final String EMBEDDED_PERSISTENCE_UNIT = "acmecollege-PU-h2";
+
+	/**
+	 * System property holding the name of the Persistence Unit of the tests, for example
+	 * -Dacmecollege.unit=acmecollege-PU-h2.  {@link JUnitBase#PERSISTENCE_UNIT} if not set.
+	 */
+	public static final String PERSISTENCE_UNIT_PROPERTY = "acmecollege.unit";
+
+	/**
+	 * All entities, in an order they can be deleted in without breaking a foreign key
+	 */
+	protected static final List<Class<?>> ENTITIES_IN_DELETE_ORDER = List.of(CourseRegistration.class, Course.class,
+		Professor.class, MembershipCard.class, ClubMembership.class, StudentClub.class, Student.class);
+
+	/**
+	 * Most times {@link JUnitBase#assertNoNPlusOne()} lets a test run the same SELECT, for example the find of two
+	 * entities of the same type
+	 */
+	protected static final int MAX_SELECT_REPEATS = 2;
+
+	/**
+	 * Queries of {@link JUnitBase#getAll}, {@link JUnitBase#getTotalCount}, {@link JUnitBase#getWithId},
+	 * {@link JUnitBase#getCountWithId} and {@link JUnitBase#deleteAllFrom}, built once per entity class (and attribute)
+	 * for all tests
+	 */
+	protected static final QueryTemplates QUERY_TEMPLATES = new QueryTemplates();
+
 	/**
 	 * Static instance of {@link EntityManagerFactory} for subclasses
 	 */
 	protected static EntityManagerFactory emf;
 
 	/**
-	 * Create an instance of {@link EntityManagerFactory} using {@link JUnitBase#PERSISTENCE_UNIT}.<br>
-	 * redirects to {@link JUnitBase#buildEMF(String)}.
+	 * @return Name of the Persistence Unit selected with {@link JUnitBase#PERSISTENCE_UNIT_PROPERTY}
+	 */
+	protected static String persistenceUnit() {
+		return System.getProperty(PERSISTENCE_UNIT_PROPERTY, PERSISTENCE_UNIT);
+	}
+
+	/**
+	 * Create an instance of {@link EntityManagerFactory} using the selected Persistence Unit,
+	 * {@link JUnitBase#PERSISTENCE_UNIT} by default.  Connections come from {@link PinnedConnectionProvider} (HikariCP)
+	 * so each test can be rolled back by {@link DataIsolationExtension}.<br>
+	 * redirects to {@link JUnitBase#buildEMF(String, Map)}.
 	 * 
 	 * @return An instance of EntityManagerFactory
 	 */
 	protected static EntityManagerFactory buildEMF() {
-		return buildEMF(PERSISTENCE_UNIT);
+		return buildEMF(persistenceUnit(),
+			Map.of(AvailableSettings.CONNECTION_PROVIDER, PinnedConnectionProvider.class.getName()));
 	}
 
 	/**
-	 * Create an instance of {@link EntityManagerFactory} using provided Persistence Unit name.
+	 * Create an instance of {@link EntityManagerFactory} using provided Persistence Unit name.<br>
+	 * redirects to {@link JUnitBase#buildEMF(String, Map)}.
 	 * 
 	 * @return An instance of EntityManagerFactory
 	 */
 	protected static EntityManagerFactory buildEMF(String persistenceUnitName) {
+		return buildEMF(persistenceUnitName, Map.of());
+	}
+
+	/**
+	 * Create an instance of {@link EntityManagerFactory} using provided Persistence Unit name.  The properties of the
+	 * selected {@link ConnectionProfile} (-Dacmecollege.profile) override the ones in persistence.xml, and the given
+	 * properties override both.  When the tests are run by parallel workers the DB is the schema of the current
+	 * worker, see {@link WorkerSchema}.  With -Dacmecollege.schema.fingerprint=true the schema is only dropped and
+	 * created when it changed, see {@link SchemaFingerprint}.  The SQL is recorded by {@link SqlStatementLog}.
+	 *
+	 * @return An instance of EntityManagerFactory
+	 */
+	protected static EntityManagerFactory buildEMF(String persistenceUnitName, Map<String, Object> properties) {
 		Objects.requireNonNull(persistenceUnitName, "Persistence Unit name cannot be null");
 		if (persistenceUnitName.isBlank()) {
 			throw new IllegalArgumentException("Persistence Unit name cannot be empty or just white space");
 		}
-		return Persistence.createEntityManagerFactory(PERSISTENCE_UNIT);
+		Map<String, Object> overrides = new HashMap<>(WorkerSchema.properties(persistenceUnitName));
+		overrides.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementLog.class.getName());
+		overrides.putAll(properties);
+		return SchemaFingerprint.createEntityManagerFactory(persistenceUnitName,
+			ConnectionProfile.selected().properties(overrides));
 	}
 
 	/**
@@ -95,32 +158,11 @@ public class JUnitBase {
 		EntityManager em = getEntityManager();
 
 		// Done JB01 - Begin transaction and truncate all tables.  Order matters.
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-
-		CriteriaDelete<CourseRegistration> q1 = cb.createCriteriaDelete(CourseRegistration.class);
-		q1.from(CourseRegistration.class);
-		CriteriaDelete<Course> q2 = cb.createCriteriaDelete(Course.class);
-		q2.from(Course.class);
-		CriteriaDelete<Professor> q3 = cb.createCriteriaDelete(Professor.class);
-		q3.from(Professor.class);
-		CriteriaDelete<MembershipCard> q4 = cb.createCriteriaDelete(MembershipCard.class);
-		q4.from(MembershipCard.class);
-		CriteriaDelete<ClubMembership> q5 = cb.createCriteriaDelete(ClubMembership.class);
-		q5.from(ClubMembership.class);
-		CriteriaDelete<StudentClub> q6 = cb.createCriteriaDelete(StudentClub.class);
-		q6.from(StudentClub.class);
-		CriteriaDelete<Student> q7 = cb.createCriteriaDelete(Student.class);
-		q7.from(Student.class);
-
 		EntityTransaction et = em.getTransaction();
 		et.begin();
-		em.createQuery(q1).executeUpdate();
-		em.createQuery(q2).executeUpdate();
-		em.createQuery(q3).executeUpdate();
-		em.createQuery(q4).executeUpdate();
-		em.createQuery(q5).executeUpdate();
-		em.createQuery(q6).executeUpdate();
-		em.createQuery(q7).executeUpdate();
+		for (Class<?> entityType : ENTITIES_IN_DELETE_ORDER) {
+			deleteAllFrom(entityType, em);
+		}
 		et.commit();
 		
 		em.close();
@@ -139,56 +181,90 @@ public class JUnitBase {
 	 */
 	public static <T> int deleteAllFrom(Class<T> entityType, EntityManager em) {
 		// Done JB02 - Using CriteriaBuilder create a CriteriaDelete to execute a truncate on DB.
-	    CriteriaBuilder builder = em.getCriteriaBuilder();
-	    CriteriaDelete<T> query = builder.createCriteriaDelete(entityType);
-	    query.from(entityType);
-	    return em.createQuery(query).executeUpdate();
-		//return -1;
+		return QUERY_TEMPLATES.deleteAll(em, entityType).executeUpdate();
 	}
 
 	protected static <T> long getTotalCount(EntityManager em, Class<T> clazz) {
 		// Done JB03 - Optional helper method.  Create a CriteriaQuery here to be reused in your tests.
-		// Method signature is just a suggestion it can be modified if need be.
-		
-		CriteriaBuilder builder = em.getCriteriaBuilder();
-		CriteriaQuery<Long> query = builder.createQuery(Long.class);
-		Root<T> root = query.from(clazz);
-		query.select(builder.count(root));
-		TypedQuery<Long> tq = em.createQuery(query);
-		long result = tq.getSingleResult();
-		return result;
+		return QUERY_TEMPLATES.count(em, clazz).getSingleResult();
 	}
 
 	protected static <T> List<T> getAll(EntityManager em, Class<T> clazz) {
 		// Done JB04 - Optional helper method.  Create a CriteriaQuery here to be reused in your tests.
-		// Method signature is just a suggestion it can be modified if need be.
-		CriteriaBuilder builder = em.getCriteriaBuilder();
-	    CriteriaQuery<T> query = builder.createQuery(clazz);
-		Root<T> root = query.from(clazz);
-		query.select(root);
-		TypedQuery<T> tq = em.createQuery(query);
-		return tq.getResultList();
-	}
-
-	protected static <T, R> T getWithId(EntityManager em, Class<T> clazz, Class<R> classPK,
-			SingularAttribute<? super T, R> sa, R id) {
-	
-
-//		CriteriaBuilder builder = em.getCriteriaBuilder();
-//		CriteriaQuery<T> query = builder.createQuery(clazz);
-//		Root<T> root = query.from(clazz);
-//		query.select(root);
-
-		// TODO JB05 - Optional helper method.  Create a CriteriaQuery here to be reused in your tests.
-		// Method signature is just a suggestion it can be modified if need be.
-		return null;
-	}
-
-	protected static <T, R> long getCountWithId(EntityManager em, Class<T> clazz, Class< R> classPK,
-			SingularAttribute<? super T, R> sa, R id) {
-		// TODO JB06 - Optional helper method.  Create a CriteriaQuery here to be reused in your tests.
-		// Method signature is just a suggestion it can be modified if need be.
-		return -1;
+		return QUERY_TEMPLATES.all(em, clazz).getResultList();
+	}
+
+	/**
+	 * @param <T>   - Type of the entity
+	 * @param <R>   - Type of the id
+	 * @param clazz - Class type of entity, like Student.class
+	 * @param sa    - id attribute, like Student_.id, or CourseRegistration_.id for an embedded id
+	 * @param id    - value of the id
+	 * @return The entity with this id, null if there is none
+	 */
+	protected static <T, R> T getWithId(EntityManager em, Class<T> clazz, SingularAttribute<? super T, R> sa, R id) {
+		// Done JB05 - Optional helper method.  Create a CriteriaQuery here to be reused in your tests.
+		return QUERY_TEMPLATES.withAttribute(em, clazz, sa, id).getResultStream().findFirst().orElse(null);
+	}
+
+	/**
+	 * @param <T>   - Type of the entity
+	 * @param <R>   - Type of the id
+	 * @param clazz - Class type of entity, like Student.class
+	 * @param sa    - id attribute, like Student_.id, or CourseRegistration_.id for an embedded id
+	 * @param id    - value of the id
+	 * @return The number of entities with this id, 0 or 1
+	 */
+	protected static <T, R> long getCountWithId(EntityManager em, Class<T> clazz, SingularAttribute<? super T, R> sa,
+		R id) {
+		// Done JB06 - Optional helper method.  Create a CriteriaQuery here to be reused in your tests.
+		return QUERY_TEMPLATES.countWithAttribute(em, clazz, sa, id).getSingleResult();
+	}
+
+	/**
+	 * Forget the SQL recorded so far by the current test, so the next assertions only count what comes after.
+	 */
+	protected static void resetSqlStatements() {
+		SqlStatementLog.start();
+	}
+
+	/**
+	 * Assert the current test sent exactly <code>expected</code> SQL statements (a JDBC batch counts once) since it
+	 * started or since {@link JUnitBase#resetSqlStatements()}.
+	 */
+	protected static void assertStatementCount(int expected) {
+		List<String> statements = SqlStatementLog.statements();
+		if (statements.size() != expected) {
+			throw new AssertionError(String.format("Expected %d SQL statements but were %d:%s", expected,
+				statements.size(), SqlStatementLog.describe(statements)));
+		}
+	}
+
+	/**
+	 * Assert the current test ran exactly <code>expected</code> SELECT statements since it started or since
+	 * {@link JUnitBase#resetSqlStatements()}.
+	 */
+	protected static void assertSelectCount(int expected) {
+		List<String> selects = SqlStatementLog.selects(SqlStatementLog.statements());
+		if (selects.size() != expected) {
+			throw new AssertionError(String.format("Expected %d SELECT statements but were %d:%s", expected,
+				selects.size(), SqlStatementLog.describe(selects)));
+		}
+	}
+
+	/**
+	 * Assert the current test did not run the same SELECT more than {@link JUnitBase#MAX_SELECT_REPEATS} times since it
+	 * started or since {@link JUnitBase#resetSqlStatements()}:  the sign of an N+1 fetch, one query for a list then one
+	 * more per element for a lazy association.
+	 */
+	protected static void assertNoNPlusOne() {
+		Map<String, Long> repeated = SqlStatementLog.selectCounts(SqlStatementLog.statements()).entrySet().stream()
+			.filter(select -> select.getValue() > MAX_SELECT_REPEATS)
+			.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		if (!repeated.isEmpty()) {
+			throw new AssertionError(String.format("N+1 fetch, SELECT run more than %d times: %s", MAX_SELECT_REPEATS,
+				repeated));
+		}
 	}
 
 	@BeforeAll
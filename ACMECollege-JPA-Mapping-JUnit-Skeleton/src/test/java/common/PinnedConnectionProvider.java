@@ -0,0 +1,244 @@
+package common;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.transaction.backend.jdbc.internal.JdbcIsolationDelegate;
+
+import acmecollege.logging.SlowQueryConnectionProvider;
+
+/**
+ * HikariCP connection provider which can pin one connection to the current thread, used by
+ * {@link DataIsolation.Mode#ROLLBACK}.  Set by {@link JUnitBase#buildEMF()} as hibernate.connection.provider_class, in
+ * place of {@link SlowQueryConnectionProvider} whose slow statement log it keeps.
+ * <p>
+ * While a connection is pinned, every {@link #getConnection()} of the thread returns a light-weight handle on it:
+ * the transaction of the handle (setAutoCommit(false) ... commit()/rollback()) is a savepoint of the pinned
+ * connection's transaction, and close() only rolls back what the handle did not commit.  So the tests keep using
+ * EntityTransaction as usual, while nothing reaches the DB for good until {@link #unpin()} rolls it all back.
+ * <p>
+ * Several EntityManagers of the thread can hold a handle at the same time, their transactions are nested savepoints.
+ * A handle can only roll back while its savepoint is the last one and no other handle committed since it was set,
+ * otherwise the rollback would undo the work of the others:  that throws {@link IllegalStateException}.
+ * <p>
+ * Only Hibernate's isolated work (JdbcIsolationDelegate) gets a connection that is not pinned:  it is the update of
+ * the id_generator table (TableGenerator), which must be committed for good or the ids would be handed out twice.
+ */
+public class PinnedConnectionProvider extends SlowQueryConnectionProvider {
+	private static final long serialVersionUID = 1L;
+
+	private final transient ThreadLocal<Pin> pins = new ThreadLocal<>();
+
+	/**
+	 * Start a DB transaction on a pooled connection and route all connections of the current thread to it.
+	 *
+	 * @throws IllegalStateException if the current thread already has a pinned connection
+	 */
+	public void pin() throws SQLException {
+		if (pins.get() != null) {
+			throw new IllegalStateException("A connection is already pinned to this thread");
+		}
+		Connection connection = super.getConnection();
+		connection.setAutoCommit(false);
+		pins.set(new Pin(connection));
+	}
+
+	/**
+	 * Roll back everything done on the pinned connection and give it back to the pool.  Nothing to do if the current
+	 * thread has no pinned connection.
+	 */
+	public void unpin() throws SQLException {
+		Pin pin = pins.get();
+		if (pin == null) {
+			return;
+		}
+		pins.remove();
+		try {
+			pin.connection.rollback();
+			pin.connection.setAutoCommit(true);
+		} finally {
+			super.closeConnection(pin.connection);
+		}
+	}
+
+	/**
+	 * @return True if the current thread has a pinned connection
+	 */
+	public boolean isPinned() {
+		return pins.get() != null;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Pin pin = pins.get();
+		if (pin == null || isIsolatedWork()) {
+			return super.getConnection();
+		}
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+			new Handle(pin));
+	}
+
+	private static boolean isIsolatedWork() {
+		String isolationDelegate = JdbcIsolationDelegate.class.getName();
+		return StackWalker.getInstance().walk(frames -> frames.anyMatch(f -> f.getClassName().equals(isolationDelegate)));
+	}
+
+	@Override
+	public void closeConnection(Connection connection) throws SQLException {
+		if (Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof Handle) {
+			connection.close();
+		} else {
+			super.closeConnection(connection);
+		}
+	}
+
+	private static class Pin {
+		private final Connection connection;
+
+		/**
+		 * Open transactions of the handles, oldest savepoint first
+		 */
+		private final List<Transaction> transactions = new ArrayList<>();
+
+		private Pin(Connection connection) {
+			this.connection = connection;
+		}
+
+		private Transaction begin() throws SQLException {
+			Transaction transaction = new Transaction(connection.setSavepoint());
+			transactions.add(transaction);
+			return transaction;
+		}
+
+		private void commit(Transaction transaction) throws SQLException {
+			boolean last = isLast(transaction);
+			transactions.remove(transaction);
+			// What was committed comes after the savepoints of the others, a rollback to one of them would undo it
+			transactions.forEach(other -> other.overlapped = true);
+			if (last) {
+				connection.releaseSavepoint(transaction.savepoint);
+			}
+		}
+
+		private void rollback(Transaction transaction) throws SQLException {
+			if (!isLast(transaction) || transaction.overlapped) {
+				transactions.remove(transaction);
+				throw new IllegalStateException("Cannot roll back, another connection of this thread has worked on "
+					+ "the pinned connection since the transaction began");
+			}
+			transactions.remove(transaction);
+			connection.rollback(transaction.savepoint);
+		}
+
+		private boolean isLast(Transaction transaction) {
+			return !transactions.isEmpty() && transactions.get(transactions.size() - 1) == transaction;
+		}
+	}
+
+	private static class Transaction {
+		private final Savepoint savepoint;
+		private boolean overlapped;
+
+		private Transaction(Savepoint savepoint) {
+			this.savepoint = savepoint;
+		}
+	}
+
+	/**
+	 * Emulates a connection of its own on top of the pinned one, with savepoints in place of transactions
+	 */
+	private static class Handle implements InvocationHandler {
+		private final Pin pin;
+		private boolean autoCommit = true;
+		private Transaction transaction;
+		private boolean closed;
+
+		private Handle(Pin pin) {
+			this.pin = pin;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "getAutoCommit":
+					return autoCommit;
+				case "setAutoCommit":
+					setAutoCommit((Boolean) args[0]);
+					return null;
+				case "commit":
+					if (!autoCommit) {
+						pin.commit(transaction);
+						transaction = pin.begin();
+					}
+					return null;
+				case "rollback":
+					if (args == null) {
+						if (!autoCommit) {
+							try {
+								pin.rollback(transaction);
+							} finally {
+								transaction = pin.begin();
+							}
+						}
+						return null;
+					}
+					break;
+				case "close":
+					close();
+					return null;
+				case "isClosed":
+					return closed;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "pinned " + pin.connection;
+				default:
+					break;
+			}
+			if (closed) {
+				throw new SQLException("Connection is closed");
+			}
+			try {
+				return method.invoke(pin.connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		private void setAutoCommit(boolean newAutoCommit) throws SQLException {
+			if (newAutoCommit == autoCommit) {
+				return;
+			}
+			if (newAutoCommit) {
+				// Same as JDBC, switching auto-commit back on commits the current transaction
+				pin.commit(transaction);
+				transaction = null;
+			} else {
+				transaction = pin.begin();
+			}
+			autoCommit = newAutoCommit;
+		}
+
+		private void close() throws SQLException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			// Same as the pool, what was not committed is rolled back when the connection is given back
+			if (transaction != null) {
+				Transaction uncommitted = transaction;
+				transaction = null;
+				pin.rollback(uncommitted);
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements a test may send to the DB, checked by {@link SqlBudgetExtension} after the test method (its
+ * @BeforeEach and @AfterEach methods are not counted).  Put it on a test class (applies to all its tests) or on a test
+ * method (wins over the class).  A test going over its budget fails with the list of its statements, so a change of
+ * fetch plan adding a SELECT per row does not go unnoticed.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface SqlBudget {
+
+	/**
+	 * Most SELECT statements, no limit by default
+	 */
+	int selects() default Integer.MAX_VALUE;
+
+	/**
+	 * Most statements of any kind, no limit by default
+	 */
+	int statements() default Integer.MAX_VALUE;
+
+	/**
+	 * Most times a single SELECT may be run, see {@link JUnitBase#assertNoNPlusOne()}, no limit by default
+	 */
+	int repeats() default Integer.MAX_VALUE;
+}
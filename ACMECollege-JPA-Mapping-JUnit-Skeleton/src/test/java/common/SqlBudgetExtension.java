@@ -0,0 +1,69 @@
+package common;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Records the SQL of each test method of a {@link JUnitBase} sub-class with {@link SqlStatementLog}, for the
+ * assertions of JUnitBase (assertSelectCount, assertNoNPlusOne, ...), and fails the test if it went over its
+ * {@link SqlBudget}.
+ * <p>
+ * Runs right around the test method, inside the @BeforeEach and @AfterEach methods, so the data they create or clean
+ * up is not counted.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		SqlStatementLog.start();
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		List<String> statements = SqlStatementLog.stop();
+		// A test which already failed keeps its own error
+		if (context.getExecutionException().isEmpty()) {
+			budget(context).ifPresent(budget -> verify(budget, statements));
+		}
+	}
+
+	/**
+	 * @throws AssertionError if <code>statements</code> go over <code>budget</code>
+	 */
+	static void verify(SqlBudget budget, List<String> statements) {
+		List<String> selects = SqlStatementLog.selects(statements);
+		if (statements.size() > budget.statements()) {
+			throw new AssertionError(String.format("%d SQL statements, budget is %d:%s", statements.size(),
+				budget.statements(), SqlStatementLog.describe(statements)));
+		}
+		if (selects.size() > budget.selects()) {
+			throw new AssertionError(String.format("%d SELECT statements, budget is %d:%s", selects.size(),
+				budget.selects(), SqlStatementLog.describe(selects)));
+		}
+		for (Map.Entry<String, Long> select : SqlStatementLog.selectCounts(statements).entrySet()) {
+			if (select.getValue() > budget.repeats()) {
+				throw new AssertionError(String.format("SELECT run %d times, budget is %d (N+1 fetch?):%n%s",
+					select.getValue(), budget.repeats(), select.getKey()));
+			}
+		}
+	}
+
+	private static Optional<SqlBudget> budget(ExtensionContext context) {
+		Optional<SqlBudget> annotation = context.getTestMethod().flatMap(SqlBudgetExtension::budget);
+		if (annotation.isEmpty()) {
+			annotation = context.getTestClass().flatMap(SqlBudgetExtension::budget);
+		}
+		return annotation;
+	}
+
+	private static Optional<SqlBudget> budget(AnnotatedElement element) {
+		return AnnotationSupport.findAnnotation(element, SqlBudget.class);
+	}
+}
@@ -0,0 +1,101 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL sent to the DB by the current thread, so a test can check how many statements its fetch plan costs.
+ * Set by {@link JUnitBase#buildEMF(String, Map)} as hibernate.session_factory.statement_inspector:  Hibernate hands it
+ * every statement right before the JDBC <code>prepareStatement</code>, so a JDBC batch counts once, same as its round
+ * trip.
+ * <p>
+ * Nothing is kept outside of {@link #start()} ... {@link #stop()}, which {@link SqlBudgetExtension} calls around each
+ * test method (not its @BeforeEach and @AfterEach methods).  The benchmarks, which also use JUnitBase, never start it.
+ */
+public class SqlStatementLog implements StatementInspector {
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+	/**
+	 * Start recording the statements of the current thread, forgets what was recorded before
+	 */
+	public static void start() {
+		STATEMENTS.set(new ArrayList<>());
+	}
+
+	/**
+	 * Stop recording the statements of the current thread.
+	 *
+	 * @return The statements recorded since {@link #start()}, in order
+	 */
+	public static List<String> stop() {
+		List<String> statements = statements();
+		STATEMENTS.remove();
+		return statements;
+	}
+
+	/**
+	 * @return The statements of the current thread recorded so far, in order, empty if not recording
+	 */
+	public static List<String> statements() {
+		List<String> statements = STATEMENTS.get();
+		return statements == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(statements));
+	}
+
+	/**
+	 * @return The SELECT statements among <code>statements</code>
+	 */
+	public static List<String> selects(List<String> statements) {
+		return statements.stream()
+			.filter(sql -> normalize(sql).startsWith("select"))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * @return How many times each distinct SELECT of <code>statements</code> was run, in the form given by
+	 *         {@link #normalize(String)}
+	 */
+	public static Map<String, Long> selectCounts(List<String> statements) {
+		return selects(statements).stream()
+			.collect(Collectors.groupingBy(SqlStatementLog::normalize, TreeMap::new, Collectors.counting()));
+	}
+
+	/**
+	 * @return <code>statements</code> one per line and numbered, for the message of a failed assertion
+	 */
+	public static String describe(List<String> statements) {
+		StringBuilder description = new StringBuilder();
+		for (int i = 0; i < statements.size(); i++) {
+			description.append(String.format("%n%3d: %s", i + 1, normalize(statements.get(i))));
+		}
+		return description.toString();
+	}
+
+	/**
+	 * Same statement, same text:  without the comments added by hibernate.use_sql_comments, on one line, lower case.
+	 * Parameters are bound to '?', so a statement run for different ids has a single form.
+	 */
+	static String normalize(String sql) {
+		return sql.replaceAll("(?s)/\\*.*?\\*/", " ")
+			.replaceAll("\\s+", " ")
+			.trim()
+			.toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public String inspect(String sql) {
+		List<String> statements = STATEMENTS.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+		return sql;
+	}
+}
@@ -0,0 +1,51 @@
+package common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Reports the wall-clock time of the whole test run and the Persistence Unit (backend) and schema it ran against, so
+ * runs on MySQL and on the embedded DB can be compared.  With parallel workers each one reports its own run.
+ * Registered with the JUnit Platform through META-INF/services/org.junit.platform.launcher.TestExecutionListener,
+ * nothing to do in the tests.
+ */
+public class SuiteTimingListener implements TestExecutionListener {
+
+	private static final Logger LOG = LogManager.getLogger("acmecollege.suite");
+
+	private final AtomicInteger tests = new AtomicInteger();
+
+	private final AtomicInteger failed = new AtomicInteger();
+
+	private long start;
+
+	@Override
+	public void testPlanExecutionStarted(TestPlan testPlan) {
+		tests.set(0);
+		failed.set(0);
+		start = System.nanoTime();
+	}
+
+	@Override
+	public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+		if (testIdentifier.isTest()) {
+			tests.incrementAndGet();
+			if (testExecutionResult.getStatus() != TestExecutionResult.Status.SUCCESSFUL) {
+				failed.incrementAndGet();
+			}
+		}
+	}
+
+	@Override
+	public void testPlanExecutionFinished(TestPlan testPlan) {
+		LOG.info("Test suite on {} ({}): {} tests, {} failed, wall-clock {} s", JUnitBase.persistenceUnit(),
+			WorkerSchema.schema(), tests.get(), failed.get(),
+			String.format("%.2f", (System.nanoTime() - start) / 1_000_000_000d));
+	}
+}
@@ -0,0 +1,146 @@
+package common;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jdbc.Work;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+/**
+ * Copy of the rows of the entity tables, used by {@link DataIsolation.Mode#SNAPSHOT}.  The tables are read and written
+ * with plain JDBC, in the order of {@link JUnitBase#ENTITIES_IN_DELETE_ORDER}.  id_generator is left alone, ids
+ * handed out by a test are not handed out again.
+ */
+class TableSnapshot {
+
+	/**
+	 * Table name -> rows, in delete order
+	 */
+	private final Map<String, Rows> tables = new LinkedHashMap<>();
+
+	private final EntityManagerFactory emf;
+
+	private TableSnapshot(EntityManagerFactory emf) {
+		this.emf = emf;
+	}
+
+	/**
+	 * @return A copy of the current rows of all the entity tables of <code>emf</code>
+	 */
+	static TableSnapshot take(EntityManagerFactory emf) {
+		TableSnapshot snapshot = new TableSnapshot(emf);
+		snapshot.doWork(connection -> {
+			for (String table : tableNames(emf)) {
+				snapshot.tables.put(table, read(connection, table));
+			}
+		});
+		return snapshot;
+	}
+
+	/**
+	 * Delete the rows of all the entity tables and insert the ones of the snapshot back
+	 */
+	void restore() {
+		doWork(connection -> {
+			try (Statement statement = connection.createStatement()) {
+				for (String table : tables.keySet()) {
+					statement.executeUpdate("delete from " + table);
+				}
+			}
+			List<String> insertOrder = new ArrayList<>(tables.keySet());
+			for (int i = insertOrder.size() - 1; i >= 0; i--) {
+				write(connection, insertOrder.get(i), tables.get(insertOrder.get(i)));
+			}
+		});
+	}
+
+	private void doWork(Work work) {
+		EntityManager em = emf.createEntityManager();
+		EntityTransaction et = em.getTransaction();
+		try {
+			et.begin();
+			em.unwrap(Session.class).doWork(work);
+			et.commit();
+		} finally {
+			if (et.isActive()) {
+				et.rollback();
+			}
+			em.close();
+		}
+	}
+
+	private static List<String> tableNames(EntityManagerFactory emf) {
+		SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+		List<String> names = new ArrayList<>();
+		for (Class<?> entity : JUnitBase.ENTITIES_IN_DELETE_ORDER) {
+			AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMetamodel()
+				.entityPersister(entity);
+			if (!names.contains(persister.getTableName())) {
+				names.add(persister.getTableName());
+			}
+		}
+		return names;
+	}
+
+	private static Rows read(Connection connection, String table) throws SQLException {
+		Rows rows = new Rows();
+		try (Statement statement = connection.createStatement();
+			ResultSet rs = statement.executeQuery("select * from " + table)) {
+			ResultSetMetaData metaData = rs.getMetaData();
+			rows.columns = new String[metaData.getColumnCount()];
+			for (int i = 0; i < rows.columns.length; i++) {
+				rows.columns[i] = metaData.getColumnName(i + 1);
+			}
+			while (rs.next()) {
+				Object[] row = new Object[rows.columns.length];
+				for (int i = 0; i < row.length; i++) {
+					row[i] = rs.getObject(i + 1);
+				}
+				rows.values.add(row);
+			}
+		}
+		return rows;
+	}
+
+	private static void write(Connection connection, String table, Rows rows) throws SQLException {
+		if (rows.values.isEmpty()) {
+			return;
+		}
+		StringJoiner names = new StringJoiner(", ", "(", ")");
+		StringJoiner values = new StringJoiner(", ", "(", ")");
+		for (String column : rows.columns) {
+			names.add(column);
+			values.add("?");
+		}
+		try (PreparedStatement insert = connection.prepareStatement("insert into " + table + " " + names + " values "
+			+ values)) {
+			for (Object[] row : rows.values) {
+				for (int i = 0; i < row.length; i++) {
+					insert.setObject(i + 1, row[i]);
+				}
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+	}
+
+	private static class Rows {
+		private String[] columns;
+		private final List<Object[]> values = new ArrayList<>();
+	}
+}
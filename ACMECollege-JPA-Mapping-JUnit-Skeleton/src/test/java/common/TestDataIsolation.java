@@ -0,0 +1,163 @@
+package common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Student;
+import common.DataIsolation.Mode;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestDataIsolation extends JUnitBase {
+
+	private static int firstId;
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	private Student persistStudent() {
+		Student student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		return student;
+	}
+
+	/**
+	 * @return Number of students seen by a connection of another thread, which only sees committed data
+	 */
+	private static long committedStudents() {
+		return CompletableFuture.supplyAsync(() -> {
+			EntityManager other = getEntityManager();
+			try {
+				return getTotalCount(other, Student.class);
+			} finally {
+				other.close();
+			}
+		}).join();
+	}
+
+	@Test
+	void test01_CommitIsVisibleInTest() {
+		et.begin();
+		firstId = persistStudent().getId();
+		et.commit();
+
+		EntityManager em2 = getEntityManager();
+		assertThat(getTotalCount(em2, Student.class), is(equalTo(1L)));
+		em2.close();
+		assertThat(committedStudents(), is(equalTo(0L)));
+	}
+
+	@Test
+	void test02_CommitIsRolledBackAfterTest() {
+		assertThat(getTotalCount(em, Student.class), is(equalTo(0L)));
+		assertThat(committedStudents(), is(equalTo(0L)));
+	}
+
+	@Test
+	void test03_RollbackInTest() {
+		et.begin();
+		persistStudent();
+		et.commit();
+		et.begin();
+		persistStudent();
+		em.flush();
+		et.rollback();
+
+		assertThat(getTotalCount(em, Student.class), is(equalTo(1L)));
+	}
+
+	@Test
+	@DataIsolation(Mode.SNAPSHOT)
+	void test04_SnapshotCommits() {
+		et.begin();
+		persistStudent();
+		et.commit();
+
+		assertThat(committedStudents(), is(equalTo(1L)));
+	}
+
+	@Test
+	void test05_SnapshotIsRestoredAfterTest() {
+		assertThat(committedStudents(), is(equalTo(0L)));
+	}
+
+	@Test
+	void test06_IdsAreNotHandedOutTwice() {
+		et.begin();
+		Student student = persistStudent();
+		et.commit();
+
+		assertThat(student.getId(), is(not(equalTo(firstId))));
+	}
+
+	@Test
+	void test07_TwoEntityManagersAtOnce() {
+		et.begin();
+		persistStudent();
+		em.flush();
+
+		// Opened while the first one holds its connection, gets a handle on the same pinned connection
+		EntityManager em2 = getEntityManager();
+		EntityTransaction et2 = em2.getTransaction();
+		et2.begin();
+		Student student = new Student();
+		student.setFullName("Jane", "Doe");
+		em2.persist(student);
+		et2.commit();
+		em2.close();
+		et.commit();
+
+		assertThat(getTotalCount(em, Student.class), is(equalTo(2L)));
+		assertThat(committedStudents(), is(equalTo(0L)));
+	}
+
+	@Test
+	void test08_TwoEntityManagersAreRolledBackAfterTest() {
+		assertThat(getTotalCount(em, Student.class), is(equalTo(0L)));
+		assertThat(committedStudents(), is(equalTo(0L)));
+	}
+
+	@Test
+	void test09_RollbackUnderAnotherCommitFails() {
+		et.begin();
+		persistStudent();
+		em.flush();
+
+		EntityManager em2 = getEntityManager();
+		EntityTransaction et2 = em2.getTransaction();
+		et2.begin();
+		Student student = new Student();
+		student.setFullName("Jane", "Doe");
+		em2.persist(student);
+		et2.commit();
+		em2.close();
+
+		// Rolling back to the savepoint of the first transaction would undo what the second one committed
+		assertThrows(IllegalStateException.class, et::rollback);
+	}
+}
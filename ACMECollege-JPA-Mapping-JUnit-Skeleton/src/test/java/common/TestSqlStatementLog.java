@@ -0,0 +1,132 @@
+package common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import acmecollege.entity.Course;
+import acmecollege.entity.CourseRegistration;
+import acmecollege.entity.Student;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestSqlStatementLog extends JUnitBase {
+
+	private static final int STUDENTS = 3;
+
+	private EntityManager em;
+	private EntityTransaction et;
+
+	@BeforeEach
+	void setup() {
+		em = getEntityManager();
+		et = em.getTransaction();
+
+		et.begin();
+		Course course = new Course();
+		course.setCourse("CST8277", "Enterprise Application Programming", 2022, "AUTUMN", 3, (byte) 0);
+		em.persist(course);
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setFullName("First" + i, "Last" + i);
+			em.persist(student);
+			CourseRegistration cr = new CourseRegistration();
+			cr.setStudent(student);
+			cr.setCourse(course);
+			em.persist(cr);
+		}
+		et.commit();
+		em.clear();
+		emf.getCache().evictAll();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+	}
+
+	@SqlBudget(selects = 1)
+	void budgetOfOneSelect() {
+		// Only holds the annotation for test04_BudgetExceeded
+	}
+
+	@Test
+	void test01_StatementsOfTheTestOnly() {
+		// The inserts of setup() are not counted
+		assertStatementCount(0);
+
+		em.find(Student.class, getAll(em, Student.class).get(0).getId());
+		assertSelectCount(1);
+
+		et.begin();
+		Student student = new Student();
+		student.setFullName("John", "Smith");
+		em.persist(student);
+		et.commit();
+		resetSqlStatements();
+		assertStatementCount(0);
+	}
+
+	@Test
+	void test02_NPlusOneIsDetected() {
+		for (Student student : getAll(em, Student.class)) {
+			student.getCourseRegistrations().size();
+		}
+
+		// One SELECT for the students, then one per student for its registrations
+		assertSelectCount(1 + STUDENTS);
+		AssertionError error = assertThrows(AssertionError.class, JUnitBase::assertNoNPlusOne);
+		assertThat(error.getMessage(), containsString("course_registration"));
+	}
+
+	@Test
+	void test03_FetchJoinIsNotNPlusOne() {
+		List<Student> students = em.createQuery(
+			"SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.courseRegistrations", Student.class).getResultList();
+		for (Student student : students) {
+			student.getCourseRegistrations().size();
+		}
+
+		assertThat(students, hasSize(STUDENTS));
+		assertSelectCount(1);
+		assertNoNPlusOne();
+	}
+
+	@Test
+	void test04_BudgetExceeded() throws NoSuchMethodException {
+		SqlBudget budget = getClass().getDeclaredMethod("budgetOfOneSelect").getAnnotation(SqlBudget.class);
+		getAll(em, Course.class);
+		SqlBudgetExtension.verify(budget, SqlStatementLog.statements());
+
+		getAll(em, Student.class);
+		AssertionError error = assertThrows(AssertionError.class,
+			() -> SqlBudgetExtension.verify(budget, SqlStatementLog.statements()));
+		assertThat(error.getMessage(), containsString("2 SELECT statements, budget is 1"));
+	}
+
+	@Test
+	@SqlBudget(selects = 1, statements = 1)
+	void test05_WithinBudget() {
+		List<CourseRegistration> registrations = em.createQuery(
+			"SELECT cr FROM CourseRegistration cr JOIN FETCH cr.student JOIN FETCH cr.course", CourseRegistration.class)
+			.getResultList();
+		for (CourseRegistration cr : registrations) {
+			cr.getStudent().getLastName();
+			cr.getCourse().getCourseCode();
+		}
+		assertThat(registrations.size(), is(equalTo(STUDENTS)));
+	}
+}
@@ -0,0 +1,73 @@
+package common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+/**
+ * Schema of the parallel test workers, only reads persistence.xml and the scripts, does not need a DB.
+ */
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class TestWorkerSchema {
+
+	private final String workerBefore = System.getProperty(WorkerSchema.WORKER_PROPERTY);
+
+	@AfterEach
+	void tearDown() {
+		if (workerBefore == null) {
+			System.clearProperty(WorkerSchema.WORKER_PROPERTY);
+		} else {
+			System.setProperty(WorkerSchema.WORKER_PROPERTY, workerBefore);
+		}
+	}
+
+	private static String script(Map<String, Object> properties, String script) {
+		return new BufferedReader((Reader) properties.get(script)).lines().collect(Collectors.joining("\n"));
+	}
+
+	@Test
+	void test01_SharedSchemaWhenNotSet() {
+		System.clearProperty(WorkerSchema.WORKER_PROPERTY);
+		assertThat(WorkerSchema.schema(), equalTo("acmecollege"));
+		assertThat(WorkerSchema.properties("acmecollege-PU"), is(anEmptyMap()));
+	}
+
+	@Test
+	void test02_MySqlSchemaOfWorker() {
+		System.setProperty(WorkerSchema.WORKER_PROPERTY, "3");
+		Map<String, Object> properties = WorkerSchema.properties("acmecollege-PU");
+		assertThat((String) properties.get(AvailableSettings.JPA_JDBC_URL),
+			startsWith("jdbc:mysql://localhost:3306/acmecollege_3?"));
+		String create = script(properties, AvailableSettings.HBM2DDL_CREATE_SCRIPT_SOURCE);
+		assertThat(create, containsString("CREATE SCHEMA IF NOT EXISTS `acmecollege_3`"));
+		assertThat(create, containsString("USE `acmecollege_3`;"));
+		assertThat(create, not(containsString("`acmecollege`")));
+		assertThat(script(properties, AvailableSettings.HBM2DDL_DROP_SCRIPT_SOURCE),
+			containsString("TRUNCATE TABLE acmecollege_3.professor;"));
+	}
+
+	@Test
+	void test03_EmbeddedDbOfWorker() {
+		System.setProperty(WorkerSchema.WORKER_PROPERTY, "3");
+		Map<String, Object> properties = WorkerSchema.properties(JUnitBase.EMBEDDED_PERSISTENCE_UNIT);
+		assertThat((String) properties.get(AvailableSettings.JPA_JDBC_URL),
+			startsWith("jdbc:h2:mem:acmecollege_3;"));
+		assertThat(script(properties, AvailableSettings.HBM2DDL_CREATE_SCRIPT_SOURCE),
+			containsString("CREATE TABLE IF NOT EXISTS `student`"));
+	}
+}
@@ -0,0 +1,97 @@
+package common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.ParsedPersistenceXmlDescriptor;
+import org.hibernate.jpa.boot.internal.PersistenceXmlParser;
+
+/**
+ * Gives each test worker (a surefire fork, see the 'parallel' profile of the pom) a schema of its own, so the workers
+ * can create and reset their tables at the same time.  The worker is set with -Dacmecollege.worker=n, without it all
+ * the tests share the acmecollege schema as before.
+ * <p>
+ * The schema of worker n is acmecollege_n:  the JDBC URL of the Persistence Unit and its create/drop scripts are
+ * re-used with the schema name replaced.
+ */
+public final class WorkerSchema {
+
+	/**
+	 * System property holding the worker number, surefire sets it to ${surefire.forkNumber}
+	 */
+	public static final String WORKER_PROPERTY = "acmecollege.worker";
+
+	/**
+	 * Schema name in the JDBC URLs and the scripts
+	 */
+	private static final String SCHEMA = "acmecollege";
+
+	private WorkerSchema() {
+	}
+
+	/**
+	 * @return Worker number, null if the tests are not run by parallel workers
+	 */
+	public static String worker() {
+		String worker = System.getProperty(WORKER_PROPERTY);
+		return worker == null || worker.isBlank() ? null : worker;
+	}
+
+	/**
+	 * @return Name of the schema of the current worker, acmecollege if not run by parallel workers
+	 */
+	public static String schema() {
+		return worker() == null ? SCHEMA : SCHEMA + "_" + worker();
+	}
+
+	/**
+	 * @param persistenceUnitName - Persistence Unit to run on the schema of the current worker
+	 * @return The JDBC URL and schema-generation scripts of <code>persistenceUnitName</code> for the schema of the
+	 *         current worker, empty if not run by parallel workers
+	 */
+	public static Map<String, Object> properties(String persistenceUnitName) {
+		if (worker() == null) {
+			return Map.of();
+		}
+		Properties unit = PersistenceXmlParser.locatePersistenceUnits(Map.of()).stream()
+			.filter(descriptor -> descriptor.getName().equals(persistenceUnitName))
+			.map(ParsedPersistenceXmlDescriptor::getProperties)
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("No Persistence Unit named " + persistenceUnitName));
+
+		Map<String, Object> properties = new HashMap<>();
+		String url = unit.getProperty(AvailableSettings.JPA_JDBC_URL);
+		if (url != null) {
+			// jdbc:mysql://host:3306/acmecollege?...  or  jdbc:h2:mem:acmecollege;...
+			properties.put(AvailableSettings.JPA_JDBC_URL, url.replaceFirst("\\b" + SCHEMA + "(?=[?;]|$)", schema()));
+		}
+		for (String script : new String[] { AvailableSettings.HBM2DDL_CREATE_SCRIPT_SOURCE,
+			AvailableSettings.HBM2DDL_DROP_SCRIPT_SOURCE }) {
+			String resource = unit.getProperty(script);
+			if (resource != null) {
+				// Hibernate takes a Reader in place of the name of the script
+				properties.put(script, new StringReader(
+					read(resource).replaceAll("\\b" + SCHEMA + "\\b", schema())));
+			}
+		}
+		return properties;
+	}
+
+	private static String read(String resource) {
+		try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+			if (in == null) {
+				throw new IllegalArgumentException("Script " + resource + " not found");
+			}
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+-- -----------------------------------------------------
+-- Create Schema for ACMECollege Application, embedded H2 version (acmecollege-PU-h2, tests only)
+--
+-- Same tables, columns, keys and indexes as META-INF/sql/acmecollege-create.sql (keep them in sync), translated for
+-- H2 in MySQL compatibility mode:
+--  - no CREATE SCHEMA/USE, the in-memory DB is the schema
+--  - BIT(1) columns are TINYINT, the entities map them to byte
+--  - no VISIBLE on indexes
+--  - no migrations of existing tables, acmecollege-drop-h2.sql drops them
+-- -----------------------------------------------------
+
+-- ------------------------------------------------------------------------
+-- Table `id_generator`
+-- ------------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS `id_generator` (
+  `sequence_name` VARCHAR(255) NOT NULL,
+  `next_val` BIGINT NULL,
+  PRIMARY KEY (`sequence_name`)
+);
+
+-- ------------------------------------------------------------------------
+-- Table `student`
+-- ------------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS `student` (
+  `id` INT NOT NULL AUTO_INCREMENT,
+  `first_name` VARCHAR(50) NOT NULL,
+  `last_name` VARCHAR(50) NOT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  PRIMARY KEY (`id`)
+);
+
+-- -----------------------------------------------------
+-- Table `student_club`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `student_club` (
+  `club_id` INT NOT NULL AUTO_INCREMENT,
+  `name` VARCHAR(100) NOT NULL,
+  `academic` TINYINT NOT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  PRIMARY KEY (`club_id`),
+  UNIQUE INDEX `name_UNIQUE` (`name` ASC)
+);
+
+-- -----------------------------------------------------
+-- Table `club_membership`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `club_membership` (
+  `membership_id` INT NOT NULL AUTO_INCREMENT,
+  `club_id` INT NOT NULL,
+  `start_date` DATETIME NOT NULL,
+  `end_date` DATETIME NOT NULL,
+  `active` TINYINT NOT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  PRIMARY KEY (`membership_id`),
+  INDEX `fk_club_membership_student_club1_idx` (`club_id` ASC),
+  CONSTRAINT `fk_club_membership_student_club1`
+    FOREIGN KEY (`club_id`) REFERENCES `student_club` (`club_id`) ON DELETE NO ACTION ON UPDATE NO ACTION
+);
+
+-- -----------------------------------------------------
+-- Table `membership_card`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `membership_card` (
+  `card_id` INT NOT NULL AUTO_INCREMENT,
+  `student_id` INT NOT NULL,
+  `membership_id` INT NULL,
+  `signed` TINYINT NOT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  INDEX `fk_membership_card_student1_idx` (`student_id` ASC),
+  INDEX `fk_membership_card_club_membership1_idx` (`membership_id` ASC),
+  UNIQUE INDEX `card_id_UNIQUE` (`card_id` ASC),
+  PRIMARY KEY (`card_id`),
+  CONSTRAINT `fk_membership_card_student1`
+    FOREIGN KEY (`student_id`)
+    REFERENCES `student` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_membership_card_club_membership1`
+    FOREIGN KEY (`membership_id`)
+    REFERENCES `club_membership` (`membership_id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION
+);
+
+-- -----------------------------------------------------
+-- Table `professor`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `professor` (
+  `professor_id` INT NOT NULL AUTO_INCREMENT,
+  `first_name` VARCHAR(50) NOT NULL,
+  `last_name` VARCHAR(50) NOT NULL,
+  `department` VARCHAR(50) NOT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  PRIMARY KEY (`professor_id`)
+);
+
+-- -----------------------------------------------------
+-- Table `course`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `course` (
+  `course_id` INT NOT NULL AUTO_INCREMENT,
+  `course_code` VARCHAR(7) NOT NULL,
+  `course_title` VARCHAR(100) NOT NULL,
+  `year` INT NOT NULL,
+  `semester` VARCHAR(6) NOT NULL,
+  `credit_units` INT NOT NULL,
+  `online` TINYINT NOT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  PRIMARY KEY (`course_id`),
+  UNIQUE INDEX `code_year_semester_UNIQUE` (`course_code` ASC, `year` ASC, `semester` ASC)
+);
+
+-- -----------------------------------------------------
+-- Table `course_registration`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `course_registration` (
+  `student_id` INT NOT NULL,
+  `course_id` INT NOT NULL,
+  `numeric_grade` INT NULL,
+  `letter_grade` VARCHAR(3) NULL,
+  `professor_id` INT NULL,
+  `created` DATETIME NULL,
+  `updated` DATETIME NULL,
+  `version` BIGINT NOT NULL DEFAULT 1,
+  PRIMARY KEY (`student_id`, `course_id`),
+  INDEX `fk_course_registration_course1_idx` (`course_id` ASC),
+  INDEX `fk_course_registration_student1_idx` (`student_id` ASC),
+  CONSTRAINT `fk_course_registration_professor1`
+    FOREIGN KEY (`professor_id`)
+    REFERENCES `professor` (`professor_id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_course_registration_course1`
+    FOREIGN KEY (`course_id`)
+    REFERENCES `course` (`course_id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_course_registration_student1`
+    FOREIGN KEY (`student_id`)
+    REFERENCES `student` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION
+);
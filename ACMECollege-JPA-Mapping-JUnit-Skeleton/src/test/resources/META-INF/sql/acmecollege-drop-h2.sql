@@ -0,0 +1,22 @@
+-- -----------------------------------------------------
+-- Drop Schema for ACMECollege Application, embedded H2 version (acmecollege-PU-h2, tests only)
+--
+-- The in-memory DB lives as long as the JVM, drop the tables so every EntityManagerFactory starts from the
+-- schema in acmecollege-create-h2.sql
+-- -----------------------------------------------------
+
+DROP TABLE IF EXISTS `course_registration`;
+
+DROP TABLE IF EXISTS `course`;
+
+DROP TABLE IF EXISTS `professor`;
+
+DROP TABLE IF EXISTS `membership_card`;
+
+DROP TABLE IF EXISTS `club_membership`;
+
+DROP TABLE IF EXISTS `student_club`;
+
+DROP TABLE IF EXISTS `student`;
+
+DROP TABLE IF EXISTS `id_generator`;